@@ -1,5 +1,6 @@
 package com.example.nonogram.api;
 
+import com.example.nonogram.service.JobQueueFullException;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -7,6 +8,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 @RestControllerAdvice
 public class ApiExceptionHandler {
@@ -27,6 +29,14 @@ public class ApiExceptionHandler {
         return pd;
     }
 
+    @ExceptionHandler(JobQueueFullException.class)
+    public ProblemDetail handleQueueFull(JobQueueFullException ex) {
+        var pd = ProblemDetail.forStatus(SERVICE_UNAVAILABLE);
+        pd.setTitle("Solve queue is full");
+        pd.setDetail(ex.getMessage());
+        return pd;
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ProblemDetail handleIllegalArg(IllegalArgumentException ex) {
         var pd = ProblemDetail.forStatus(BAD_REQUEST);
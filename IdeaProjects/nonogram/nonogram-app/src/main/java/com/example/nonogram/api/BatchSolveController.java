@@ -0,0 +1,47 @@
+package com.example.nonogram.api;
+
+import com.example.nonogram.config.BatchProperties;
+import com.example.nonogram.service.NonogramService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Min;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+/**
+ * Пакетное решение: NDJSON с пазлами на входе, NDJSON с результатами на выходе
+ * (см. {@link NdjsonBatchSolver}). Лимиты из параметров действуют на каждый пазл отдельно,
+ * на весь ответ — только {@code nonogram.batch.timeout}.
+ */
+@RestController
+@RequestMapping("/api/solve/batch")
+@Validated
+public class BatchSolveController {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private final NonogramService service;
+    private final NdjsonBatchSolver batch;
+    private final BatchProperties props;
+
+    public BatchSolveController(NonogramService service, NdjsonBatchSolver batch, BatchProperties props) {
+        this.service = service;
+        this.batch = batch;
+        this.props = props;
+    }
+
+    @PostMapping(consumes = NDJSON, produces = NDJSON)
+    public WebAsyncTask<Void> solve(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            @RequestParam(name = "timeoutMs", required = false) @Min(1) Long timeoutMs,
+            @RequestParam(name = "maxNodes", required = false) @Min(1) Long maxNodes
+    ) {
+        var limits = service.limitsFor(timeoutMs, maxNodes);
+        // тело читается уже в асинхронной фазе, построчно по мере решения
+        response.setContentType(NDJSON);
+        return StreamingTask.of(response, props.getTimeout(),
+                out -> batch.solve(request.getInputStream(), out, limits));
+    }
+}
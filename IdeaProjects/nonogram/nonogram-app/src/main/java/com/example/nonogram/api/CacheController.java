@@ -0,0 +1,41 @@
+package com.example.nonogram.api;
+
+import com.example.nonogram.api.dto.CacheStatsDto;
+import com.example.nonogram.service.NonogramService;
+import com.example.nonogram.service.ResultCache;
+import com.example.nonogram.solver.JPNSolver;
+import com.example.nonogram.solver.LineCache;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Статистика кэшей решателя — чтобы подбирать их размеры по живой нагрузке. */
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final JPNSolver solver;
+    private final NonogramService service;
+
+    public CacheController(JPNSolver solver, NonogramService service) {
+        this.solver = solver;
+        this.service = service;
+    }
+
+    @GetMapping(value = "/lines", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CacheStatsDto lineCache() {
+        LineCache cache = solver.getLineCache();
+        if (cache == null) return new CacheStatsDto(false, 0, 0, 0, 0, 0, 0);
+        return new CacheStatsDto(true, cache.getHits(), cache.getMisses(), cache.getEvictions(),
+                cache.getEntries(), cache.getBytes(), cache.getMaxBytes());
+    }
+
+    @GetMapping(value = "/results", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CacheStatsDto resultCache() {
+        ResultCache cache = service.getResultCache();
+        if (cache == null) return new CacheStatsDto(false, 0, 0, 0, 0, 0, 0);
+        return new CacheStatsDto(true, cache.getHits(), cache.getMisses(), cache.getEvictions(),
+                cache.getEntries(), cache.getBytes(), cache.getMaxBytes());
+    }
+}
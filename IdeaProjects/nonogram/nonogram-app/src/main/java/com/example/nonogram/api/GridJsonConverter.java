@@ -0,0 +1,39 @@
+package com.example.nonogram.api;
+
+import com.example.nonogram.api.dto.GridEncoding;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+/**
+ * JSON-ответы с компактными сетками: {@value GridEncoding#BITS_JSON} и
+ * {@value GridEncoding#RLE_JSON}. Это обычный Jackson-конвертер, который передаёт
+ * кодировку сериализатору сеток атрибутом писателя; остальной JSON не меняется.
+ * Запросы с такими типами он не читает.
+ * <p>
+ * Наследник не {@code MappingJackson2HttpMessageConverter}, иначе Spring Boot счёл бы его своим
+ * JSON-конвертером и не создал бы стандартный — обычный {@code application/json} ушёл бы
+ * к конвертеру WebMvc по умолчанию мимо {@code spring.jackson.*}.
+ */
+public class GridJsonConverter extends AbstractJackson2HttpMessageConverter {
+
+    static final MediaType BITS = MediaType.parseMediaType(GridEncoding.BITS_JSON);
+    static final MediaType RLE = MediaType.parseMediaType(GridEncoding.RLE_JSON);
+
+    public GridJsonConverter(ObjectMapper mapper) {
+        super(mapper, BITS, RLE);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+        GridEncoding encoding = RLE.isCompatibleWith(contentType) ? GridEncoding.RLE : GridEncoding.BITS;
+        return writer.withAttribute(GridEncoding.class, encoding);
+    }
+}
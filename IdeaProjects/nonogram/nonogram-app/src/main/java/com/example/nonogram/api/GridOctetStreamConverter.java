@@ -0,0 +1,103 @@
+package com.example.nonogram.api;
+
+import com.example.nonogram.api.dto.GridBitmapStream;
+import com.example.nonogram.api.dto.GridRows;
+import com.example.nonogram.api.dto.SolutionDto;
+import com.example.nonogram.api.dto.SolutionsDto;
+import com.example.nonogram.api.dto.SolveResultDto;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Решения как {@code application/octet-stream}: тело — битмап закрашенных клеток
+ * ({@link GridBitmapStream}), а если известны не все клетки — следом битмап {@code known}
+ * той же длины. Размеры и статус — в заголовках {@value #HEIGHT}, {@value #WIDTH},
+ * {@value #STATUS}; {@value #KNOWN}{@code : appended} отмечает второй битмап.
+ * Для перечисления ({@link SolutionsDto}) битмапы решений идут подряд, их число и
+ * полнота списка — в {@value #FOUND} и {@value #COMPLETE}, статус — тоже в {@value #STATUS}.
+ */
+public class GridOctetStreamConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final String HEIGHT = "X-Nonogram-Height";
+    public static final String WIDTH = "X-Nonogram-Width";
+    public static final String STATUS = "X-Nonogram-Status";
+    public static final String KNOWN = "X-Nonogram-Known";
+    public static final String FOUND = "X-Nonogram-Found";
+    public static final String COMPLETE = "X-Nonogram-Complete";
+
+    public GridOctetStreamConverter() {
+        super(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == SolveResultDto.class || clazz == SolutionDto.class || clazz == SolutionsDto.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage input) {
+        throw new HttpMessageNotReadableException("Grids are not read from octet streams", input);
+    }
+
+    @Override
+    protected Long getContentLength(Object dto, MediaType contentType) {
+        if (dto instanceof SolveResultDto r)
+            return GridBitmapStream.size(r.filled()) * (r.known() == null ? 1 : 2);
+        if (dto instanceof SolutionsDto all)
+            return all.solutions().stream().mapToLong(s -> GridBitmapStream.size(s.filled())).sum();
+        return GridBitmapStream.size(((SolutionDto) dto).filled());
+    }
+
+    @Override
+    protected void writeInternal(Object dto, HttpOutputMessage output) throws IOException {
+        HttpHeaders headers = output.getHeaders();
+        if (dto instanceof SolutionsDto all) {
+            headers.set(STATUS, all.status().name());
+            headers.set(FOUND, Integer.toString(all.found()));
+            headers.set(COMPLETE, Boolean.toString(all.complete()));
+            if (!all.solutions().isEmpty()) setSize(headers, all.solutions().get(0).filled());
+            OutputStream out = output.getBody();
+            for (SolutionDto s : all.solutions()) write(s.filled(), out);
+            return;
+        }
+
+        GridRows filled, known = null;
+        if (dto instanceof SolveResultDto r) {
+            filled = r.filled();
+            known = r.known();
+            headers.set(STATUS, r.status().name());
+            if (known != null) headers.set(KNOWN, "appended");
+        } else {
+            filled = ((SolutionDto) dto).filled();
+        }
+        setSize(headers, filled);
+
+        OutputStream out = output.getBody();
+        write(filled, out);
+        if (known != null) write(known, out);
+    }
+
+    private static void setSize(HttpHeaders headers, GridRows grid) {
+        headers.set(HEIGHT, Integer.toString(grid.height()));
+        headers.set(WIDTH, Integer.toString(grid.width()));
+    }
+
+    private static void write(GridRows grid, OutputStream out) throws IOException {
+        try (InputStream in = new GridBitmapStream(grid)) {
+            in.transferTo(out);
+        }
+    }
+}
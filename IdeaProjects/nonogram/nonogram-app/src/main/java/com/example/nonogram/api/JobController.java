@@ -0,0 +1,54 @@
+package com.example.nonogram.api;
+
+import com.example.nonogram.api.dto.CrosswordDto;
+import com.example.nonogram.api.dto.JobDto;
+import com.example.nonogram.service.NonogramService;
+import com.example.nonogram.service.SolveJobs;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * Асинхронное решение: POST ставит пазл в очередь и сразу отвечает 202 с id,
+ * GET отдаёт статус или результат, DELETE отменяет.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@Validated
+public class JobController {
+
+    private final SolveJobs jobs;
+    private final NonogramService service;
+
+    public JobController(SolveJobs jobs, NonogramService service) {
+        this.jobs = jobs;
+        this.service = service;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JobDto> submit(
+            @Valid @RequestBody CrosswordDto dto,
+            @RequestParam(name = "timeoutMs", required = false) @Min(1) Long timeoutMs,
+            @RequestParam(name = "maxNodes", required = false) @Min(1) Long maxNodes
+    ) {
+        var job = jobs.submit(Mapper.toModel(dto), service.limitsFor(timeoutMs, maxNodes));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + job.id()))
+                .body(Mapper.toDto(job));
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JobDto> get(@PathVariable("id") String id) {
+        return ResponseEntity.of(jobs.get(id).map(Mapper::toDto));
+    }
+
+    @DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JobDto> cancel(@PathVariable("id") String id) {
+        return ResponseEntity.of(jobs.cancel(id).map(Mapper::toDto));
+    }
+}
@@ -1,9 +1,18 @@
 package com.example.nonogram.api;
 
 import com.example.nonogram.api.dto.CrosswordDto;
+import com.example.nonogram.api.dto.GridRows;
+import com.example.nonogram.api.dto.JobDto;
 import com.example.nonogram.api.dto.SolutionDto;
+import com.example.nonogram.api.dto.SolveResultDto;
+import com.example.nonogram.api.dto.SolutionsDto;
 import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.SolveAllResult;
+import com.example.nonogram.core.model.SolveResult;
 import com.example.nonogram.core.model.Solution;
+import com.example.nonogram.service.SolveJobs;
+
+import java.util.List;
 
 public final class Mapper {
     private Mapper(){}
@@ -17,15 +26,23 @@ public final class Mapper {
     }
 
     public static SolutionDto toDto(Solution sol) {
-        return new SolutionDto(sol.height(), sol.width(), extract(sol));
+        return new SolutionDto(sol.height(), sol.width(), GridRows.filled(sol));
+    }
+
+    public static SolutionsDto toDto(SolveAllResult result, int maxSolutions) {
+        List<SolutionDto> dtos = result.solutions().stream().map(Mapper::toDto).toList();
+        boolean complete = !result.isStopped() && dtos.size() < maxSolutions;
+        return new SolutionsDto(result.status(), dtos.size(), complete, dtos);
+    }
+
+    public static SolveResultDto toDto(SolveResult result) {
+        Solution sol = result.solution();
+        GridRows known = result.isComplete() ? null : GridRows.known(result);
+        return new SolveResultDto(result.status(), sol.height(), sol.width(), GridRows.filled(sol), known);
     }
 
-    private static boolean[][] extract(Solution s) {
-        int h = s.height(), w = s.width();
-        boolean[][] g = new boolean[h][w];
-        for (int r = 0; r < h; r++)
-            for (int c = 0; c < w; c++)
-                g[r][c] = s.isFilled(r,c);
-        return g;
+    public static JobDto toDto(SolveJobs.Snapshot job) {
+        SolveResultDto result = job.result() != null ? toDto(job.result()) : null;
+        return new JobDto(job.id(), job.status(), result, job.error());
     }
 }
\ No newline at end of file
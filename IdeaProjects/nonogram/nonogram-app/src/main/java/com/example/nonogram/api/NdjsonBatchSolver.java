@@ -0,0 +1,164 @@
+package com.example.nonogram.api;
+
+import com.example.nonogram.api.dto.BatchResultDto;
+import com.example.nonogram.api.dto.CrosswordDto;
+import com.example.nonogram.config.BatchProperties;
+import com.example.nonogram.core.SolveLimits;
+import com.example.nonogram.service.NonogramService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Пакетное решение в NDJSON: на входе по {@link CrosswordDto} в строке, на выходе по
+ * {@link BatchResultDto} в строке в порядке готовности, с номером входной строки.
+ * <p>
+ * Вход читается построчно по мере решения: в работе одновременно не больше
+ * {@code max-in-flight} пазлов запроса, и пока все слоты заняты, поток запроса пишет
+ * готовые ответы, а не читает дальше. Пишет и читает один поток, сброс на сеть — когда
+ * готовых ответов больше нет. Ошибка в строке (невалидный JSON, неверные подсказки,
+ * сбой решения) уходит в ответ этой строки и не прерывает пакет. Если же оборвался сам
+ * запрос (ошибка чтения или записи), решения, которые ещё в работе, отменяются.
+ */
+@Component
+@EnableConfigurationProperties(BatchProperties.class)
+public class NdjsonBatchSolver implements AutoCloseable {
+
+    private final NonogramService service;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final Validator validator;
+    private final ExecutorService pool;
+    private final int maxInFlight;
+
+    public NdjsonBatchSolver(NonogramService service, ObjectMapper mapper, Validator validator, BatchProperties props) {
+        this.service = service;
+        this.reader = mapper.readerFor(CrosswordDto.class);
+        this.writer = mapper.writerFor(BatchResultDto.class);
+        this.validator = validator;
+        int threads = props.getParallelism() > 0 ? props.getParallelism() : Runtime.getRuntime().availableProcessors();
+        this.maxInFlight = props.getMaxInFlight() > 0 ? props.getMaxInFlight() : 2 * threads;
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "batch-solve-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Решает всё из {@code in} и пишет ответы в {@code out}; пустые строки пропускаются. */
+    public void solve(InputStream in, OutputStream out, SolveLimits limits) throws IOException {
+        BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        CompletionService<BatchResultDto> done = new ExecutorCompletionService<>(pool);
+        // если запрос оборвался на чтении или записи, начатые решения не должны доживать до таймаута
+        AtomicBoolean abandoned = new AtomicBoolean();
+        SolveLimits lineLimits = limits.withCancellation(() -> abandoned.get() || limits.isCancelled());
+        int inFlight = 0;
+        long index = 0;
+        try {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.isBlank()) continue;
+                long i = index++;
+                String json = line;
+                while (inFlight >= maxInFlight) {
+                    write(out, take(done));
+                    inFlight--;
+                }
+                done.submit(() -> solveLine(i, json, lineLimits));
+                inFlight++;
+                inFlight -= drain(done, out);
+            }
+            while (inFlight > 0) {
+                write(out, take(done));
+                inFlight--;
+                inFlight -= drain(done, out);
+            }
+            out.flush();    // только здесь: flush оборванного потока заглушил бы исходную ошибку
+        } finally {
+            abandoned.set(true);
+        }
+    }
+
+    private BatchResultDto solveLine(long index, String json, SolveLimits limits) {
+        try {
+            CrosswordDto dto = reader.readValue(json);
+            Set<ConstraintViolation<CrosswordDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                return new BatchResultDto(index, null, violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+            return new BatchResultDto(index, Mapper.toDto(service.solve(Mapper.toModel(dto), limits)), null);
+        } catch (JsonProcessingException e) {
+            return new BatchResultDto(index, null, "Invalid JSON: " + e.getOriginalMessage());
+        } catch (RuntimeException e) {
+            return new BatchResultDto(index, null, e.getMessage());
+        }
+    }
+
+    /** Пишет всё, что уже готово, и сбрасывает поток; возвращает, сколько записано. */
+    private int drain(CompletionService<BatchResultDto> done, OutputStream out) throws IOException {
+        int n = 0;
+        Future<BatchResultDto> f;
+        while ((f = done.poll()) != null) {
+            write(out, get(f));
+            n++;
+        }
+        if (n > 0) out.flush();
+        return n;
+    }
+
+    private BatchResultDto take(CompletionService<BatchResultDto> done) throws IOException {
+        try {
+            return get(done.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch interrupted", e);
+        }
+    }
+
+    private static BatchResultDto get(Future<BatchResultDto> f) throws IOException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Batch item failed", e.getCause());   // solveLine сам ловит ошибки
+        }
+    }
+
+    private void write(OutputStream out, BatchResultDto result) throws IOException {
+        out.write(writer.writeValueAsBytes(result));
+        out.write('\n');
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
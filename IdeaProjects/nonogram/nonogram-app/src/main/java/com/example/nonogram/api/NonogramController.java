@@ -1,19 +1,23 @@
 package com.example.nonogram.api;
 
 import com.example.nonogram.api.dto.CrosswordDto;
+import com.example.nonogram.api.dto.GridEncoding;
 import com.example.nonogram.api.dto.GridDto;
-import com.example.nonogram.api.dto.SolutionDto;
+import com.example.nonogram.api.dto.SolveResultDto;
+import com.example.nonogram.api.dto.SolutionsDto;
+import com.example.nonogram.config.IoProperties;
 import com.example.nonogram.core.AntiSolver;
-import com.example.nonogram.core.Solver;
 import com.example.nonogram.core.model.Crossword;
-import com.example.nonogram.core.model.Solution;
 import com.example.nonogram.service.NonogramService;
 import com.example.nonogram.util.BuiltinPuzzles;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -25,30 +29,70 @@ import java.util.List;
 @Validated
 public class NonogramController {
 
-    private final Solver solver;
+    /** Потолок для {@code maxSolutions}: каждое решение — это целая сетка в ответе. */
+    static final int MAX_SOLUTIONS = 100;
+
     private final AntiSolver antiSolver;
     private final NonogramService service;
     private final BuiltinPuzzles builtin;
+    private final IoProperties io;
 
-    public NonogramController(Solver solver, AntiSolver antiSolver, NonogramService service, BuiltinPuzzles builtin) {
-        this.solver = solver;
+    public NonogramController(AntiSolver antiSolver, NonogramService service, BuiltinPuzzles builtin, IoProperties io) {
         this.antiSolver = antiSolver;
         this.service = service;
         this.builtin = builtin;
+        this.io = io;
     }
 
-    @PostMapping(value = "/solve", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public SolutionDto solve(@Valid @RequestBody CrosswordDto dto) {
+    /**
+     * {@code timeoutMs} и {@code maxNodes} ограничивают решение; больше серверных потолков
+     * ({@code nonogram.solver.limits}) попросить нельзя. Упёршись в ограничение, ответ
+     * приходит со статусом TIMEOUT/PARTIAL и маской {@code known}.
+     * <p>
+     * Кодировка сеток — по {@code Accept}: JSON по умолчанию, компактные варианты из
+     * {@link GridEncoding} или сырой битмап ({@link GridOctetStreamConverter}).
+     */
+    @PostMapping(value = "/solve", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, GridEncoding.BITS_JSON, GridEncoding.RLE_JSON, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public SolveResultDto solve(
+            @Valid @RequestBody CrosswordDto dto,
+            @RequestParam(name = "timeoutMs", required = false) @Min(1) Long timeoutMs,
+            @RequestParam(name = "maxNodes", required = false) @Min(1) Long maxNodes
+    ) {
+        Crossword cw = Mapper.toModel(dto);
+        return Mapper.toDto(service.solve(cw, service.limitsFor(timeoutMs, maxNodes)));
+    }
+
+    /**
+     * Перечисление решений: останавливается на {@code maxSolutions}-м найденном.
+     * {@code maxSolutions=2} — проверка единственности. {@code timeoutMs}/{@code maxNodes} —
+     * как у одиночного решения; прерванное перечисление приходит со статусом TIMEOUT/PARTIAL
+     * и {@code complete = false}.
+     */
+    @PostMapping(value = "/solve", params = "maxSolutions",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, GridEncoding.BITS_JSON, GridEncoding.RLE_JSON, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public SolutionsDto solveAll(
+            @Valid @RequestBody CrosswordDto dto,
+            @RequestParam("maxSolutions") @Min(1) @Max(MAX_SOLUTIONS) int maxSolutions,
+            @RequestParam(name = "timeoutMs", required = false) @Min(1) Long timeoutMs,
+            @RequestParam(name = "maxNodes", required = false) @Min(1) Long maxNodes
+    ) {
         Crossword cw = Mapper.toModel(dto);
-        Solution sol = solver.solve(cw);
-        return Mapper.toDto(sol);
+        var limits = service.limitsFor(timeoutMs, maxNodes);
+        return Mapper.toDto(service.solveAll(cw, maxSolutions, limits), maxSolutions);
     }
 
-    @PostMapping(value = "/solve/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public SolutionDto solveUpload(@RequestPart("file") MultipartFile file) throws Exception {
+    @PostMapping(value = "/solve/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, GridEncoding.BITS_JSON, GridEncoding.RLE_JSON, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public SolveResultDto solveUpload(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(name = "timeoutMs", required = false) @Min(1) Long timeoutMs,
+            @RequestParam(name = "maxNodes", required = false) @Min(1) Long maxNodes
+    ) throws Exception {
         try (InputStream in = file.getInputStream()) {
-            var result = service.readAndSolve(in);
-            return Mapper.toDto(result.solution());
+            var result = service.readAndSolve(in, service.limitsFor(timeoutMs, maxNodes));
+            return Mapper.toDto(result.outcome());
         }
     }
 
@@ -57,10 +101,11 @@ public class NonogramController {
         return builtin.list();
     }
 
-    @GetMapping(value = "/solve/builtin/{name}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public SolutionDto solveBuiltin(@PathVariable("name") String name) throws IOException {
+    @GetMapping(value = "/solve/builtin/{name}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, GridEncoding.BITS_JSON, GridEncoding.RLE_JSON, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public SolveResultDto solveBuiltin(@PathVariable("name") String name) throws IOException {
         var result = service.readAndSolveBuiltin(name);
-        return Mapper.toDto(result.solution());
+        return Mapper.toDto(result.outcome());
     }
 
     @PostMapping(
@@ -73,20 +118,26 @@ public class NonogramController {
         return Mapper.toDto(cw);
     }
 
+    /**
+     * Картинка → JPNXML потоком: строки документа уходят клиенту по мере вычисления, память
+     * на ответ — порядка ширины картинки плюс подсказки столбцов. Сетка проверяется до
+     * начала ответа, так что кривой ввод даёт обычный 400. Весь ответ ограничен только
+     * {@code nonogram.io.export-timeout}.
+     */
     @PostMapping(
             value = "/export/jpnxml",
             consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_XML_VALUE
     )
-    public ResponseEntity<byte[]> exportJpnXml(
+    public WebAsyncTask<Void> exportJpnXml(
             @Valid @RequestBody GridDto grid,
-            @RequestParam(name = "name", required = false, defaultValue = "nonogram") String name
-    ) throws IOException {
-        var cw   = antiSolver.antiSolve(grid.filled());
-        var data = service.writeToBytes(cw);
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_XML)
-                .header("Content-Disposition", "attachment; filename=\"" + name + ".jpnxml\"")
-                .body(data);
+            @RequestParam(name = "name", required = false, defaultValue = "nonogram") String name,
+            HttpServletResponse response
+    ) {
+        boolean[][] filled = grid.filled();
+        AntiSolver.requireRectangular(filled);
+        response.setContentType(MediaType.APPLICATION_XML_VALUE);
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + name + ".jpnxml\"");
+        return StreamingTask.of(response, io.getExportTimeout(), out -> service.exportJpnXml(filled, out));
     }
 }
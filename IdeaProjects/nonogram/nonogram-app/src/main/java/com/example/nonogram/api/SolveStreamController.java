@@ -0,0 +1,75 @@
+package com.example.nonogram.api;
+
+import com.example.nonogram.api.dto.CrosswordDto;
+import com.example.nonogram.api.dto.StreamStartDto;
+import com.example.nonogram.core.SolveLimits;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.service.NonogramService;
+import com.example.nonogram.service.SolveJobs;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Решение с потоком событий (SSE): {@code start} с размерами, затем {@code progress}
+ * с новыми клетками не чаще раза в {@code intervalMs}, и {@code result} со статусом.
+ * Решение идёт задачей {@link SolveJobs} — тот же пул и та же очередь; обрыв соединения
+ * его отменяет.
+ * GET — для встроенных пазлов (EventSource умеет только GET), POST — для своих.
+ */
+@RestController
+@RequestMapping("/api/solve/stream")
+@Validated
+public class SolveStreamController {
+
+    /** Сколько поток может ждать очереди сверх дедлайна решения. */
+    private static final long QUEUE_WAIT_MILLIS = 60_000;
+
+    private final NonogramService service;
+    private final SolveJobs jobs;
+
+    public SolveStreamController(NonogramService service, SolveJobs jobs) {
+        this.service = service;
+        this.jobs = jobs;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBuiltin(
+            @RequestParam("name") String name,
+            @RequestParam(name = "timeoutMs", required = false) @Min(1) Long timeoutMs,
+            @RequestParam(name = "maxNodes", required = false) @Min(1) Long maxNodes,
+            @RequestParam(name = "intervalMs", defaultValue = "100") @Min(10) long intervalMs
+    ) throws IOException {
+        return stream(service.readBuiltin(name), service.limitsFor(timeoutMs, maxNodes), intervalMs);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @Valid @RequestBody CrosswordDto dto,
+            @RequestParam(name = "timeoutMs", required = false) @Min(1) Long timeoutMs,
+            @RequestParam(name = "maxNodes", required = false) @Min(1) Long maxNodes,
+            @RequestParam(name = "intervalMs", defaultValue = "100") @Min(10) long intervalMs
+    ) throws IOException {
+        return stream(Mapper.toModel(dto), service.limitsFor(timeoutMs, maxNodes), intervalMs);
+    }
+
+    private SseEmitter stream(Crossword cw, SolveLimits limits, long intervalMs) throws IOException {
+        SseEmitter emitter = new SseEmitter(limits.timeoutMillis() > 0 ? limits.timeoutMillis() + QUEUE_WAIT_MILLIS : 0L);
+        SseSolveListener listener = new SseSolveListener(emitter, TimeUnit.MILLISECONDS.toNanos(intervalMs),
+                cw.height() * cw.width());
+        // до постановки в очередь: события задачи должны идти после start
+        emitter.send(SseEmitter.event().name("start")
+                .data(new StreamStartDto(cw.height(), cw.width()), MediaType.APPLICATION_JSON));
+
+        var job = jobs.submit(cw, limits.withCancellation(listener::isDisconnected), listener, listener::finish);
+        emitter.onTimeout(() -> jobs.cancel(job.id()));
+        emitter.onError(e -> jobs.cancel(job.id()));
+        return emitter;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.nonogram.api;
+
+import com.example.nonogram.api.dto.SolveDeltaDto;
+import com.example.nonogram.core.SolveListener;
+import com.example.nonogram.core.model.SolveResult;
+import com.example.nonogram.core.model.SolveStatus;
+import com.example.nonogram.service.SolveJobs;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Переводит ход решения в SSE-события: {@code progress} — дельты от решателя (он сам
+ * их троттлит), {@code result} — остаток клеток и статус. Запоминает отправленные клетки,
+ * чтобы в финальное событие попали только те, что клиент ещё не видел.
+ */
+final class SseSolveListener implements SolveListener {
+
+    private final SseEmitter emitter;
+    private final long intervalNanos;
+    private final boolean[] sent;
+    private volatile boolean disconnected;
+
+    SseSolveListener(SseEmitter emitter, long intervalNanos, int cells) {
+        this.emitter = emitter;
+        this.intervalNanos = intervalNanos;
+        this.sent = new boolean[cells];
+    }
+
+    @Override
+    public long intervalNanos() {
+        return intervalNanos;
+    }
+
+    @Override
+    public void cellsResolved(int[] filled, int[] blank, int known) {
+        for (int cell : filled) sent[cell] = true;
+        for (int cell : blank) sent[cell] = true;
+        send("progress", new SolveDeltaDto(null, filled, blank, known, sent.length));
+    }
+
+    /** Последнее событие и закрытие потока; вызывается из колбэка завершения задачи. */
+    void finish(SolveJobs.Snapshot job) {
+        if (job.status() == SolveJobs.Status.FAILED) {
+            emitter.completeWithError(new IllegalStateException(job.error()));
+            return;
+        }
+        SolveResult result = job.result();
+        if (result == null) {                                   // отменена до или во время решения
+            send("result", new SolveDeltaDto(SolveStatus.PARTIAL, new int[0], new int[0], 0, sent.length));
+            emitter.complete();
+            return;
+        }
+        int width = result.solution().width();
+        int filledCount = 0, blankCount = 0, known = 0;
+        for (int cell = 0; cell < sent.length; cell++) {
+            int r = cell / width, c = cell % width;
+            if (!result.isKnown(r, c)) continue;
+            known++;
+            if (sent[cell]) continue;
+            if (result.solution().isFilled(r, c)) filledCount++;
+            else blankCount++;
+        }
+        int[] filled = new int[filledCount];
+        int[] blank = new int[blankCount];
+        for (int cell = 0, f = 0, b = 0; cell < sent.length; cell++) {
+            int r = cell / width, c = cell % width;
+            if (sent[cell] || !result.isKnown(r, c)) continue;
+            if (result.solution().isFilled(r, c)) filled[f++] = cell;
+            else blank[b++] = cell;
+        }
+        send("result", new SolveDeltaDto(result.status(), filled, blank, known, sent.length));
+        emitter.complete();
+    }
+
+    boolean isDisconnected() {
+        return disconnected;
+    }
+
+    private void send(String name, Object data) {
+        if (disconnected) return;
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            disconnected = true;                                // клиент ушёл — решение отменит контроллер
+        }
+    }
+}
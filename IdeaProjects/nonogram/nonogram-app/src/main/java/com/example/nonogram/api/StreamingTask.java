@@ -0,0 +1,31 @@
+package com.example.nonogram.api;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.time.Duration;
+
+/**
+ * Потоковый ответ со своим таймаутом асинхронной фазы. Голый {@link StreamingResponseBody}
+ * живёт по общему {@code spring.mvc.async.request-timeout} (у Tomcat по умолчанию 30 с), а по
+ * его истечении ответ уже отправлен — клиент получает 200 и оборванное тело без ошибки.
+ * <p>
+ * Заголовки выставляются на {@code response} до возврата задачи; метод контроллера должен
+ * принимать {@link HttpServletResponse}, иначе Spring после задачи станет искать представление.
+ */
+final class StreamingTask {
+
+    private StreamingTask() {}
+
+    /** @param timeout сколько можно писать ответ; 0 — без ограничения */
+    static WebAsyncTask<Void> of(HttpServletResponse response, Duration timeout, StreamingResponseBody body) {
+        return new WebAsyncTask<>(timeout.toMillis(), () -> {
+            OutputStream out = response.getOutputStream();
+            body.writeTo(out);
+            out.flush();
+            return null;
+        });
+    }
+}
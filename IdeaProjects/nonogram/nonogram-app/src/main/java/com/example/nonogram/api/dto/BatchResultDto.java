@@ -0,0 +1,11 @@
+package com.example.nonogram.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** Строка ответа пакетного решения: номер входной строки и либо результат, либо ошибка. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchResultDto(
+        long index,
+        SolveResultDto result,
+        String error
+) {}
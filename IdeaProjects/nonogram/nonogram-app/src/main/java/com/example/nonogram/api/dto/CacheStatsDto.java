@@ -0,0 +1,11 @@
+package com.example.nonogram.api.dto;
+
+public record CacheStatsDto(
+        boolean enabled,
+        long hits,
+        long misses,
+        long evictions,
+        long entries,
+        long bytes,
+        long maxBytes
+) {}
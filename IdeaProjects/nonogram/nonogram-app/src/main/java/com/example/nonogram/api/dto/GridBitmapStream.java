@@ -0,0 +1,72 @@
+package com.example.nonogram.api.dto;
+
+import com.example.nonogram.core.model.Solution;
+
+import java.io.InputStream;
+
+/**
+ * Битмап сетки как поток байтов: клетки подряд по строкам, клетка {@code i = r * width + c}
+ * — бит {@code i % 8} байта {@code i / 8}, хвост последнего байта нулевой. Строки читаются
+ * из {@link GridRows} по мере чтения потока, весь битмап в памяти не собирается.
+ */
+public final class GridBitmapStream extends InputStream {
+
+    private final GridRows grid;
+    private final long[] row;
+    private int r;
+    private int pos;            // следующий бит строки r
+    private long acc;           // накопленные, ещё не отданные биты (младшие — первыми)
+    private int accBits;
+
+    public GridBitmapStream(GridRows grid) {
+        this.grid = grid;
+        this.row = new long[Solution.words(grid.width())];
+        if (grid.height() > 0) grid.copyRow(0, row);
+    }
+
+    /** Длина битмапа в байтах. */
+    public static long size(GridRows grid) {
+        return ((long) grid.height() * grid.width() + 7) >>> 3;
+    }
+
+    @Override
+    public int read() {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        int n = 0;
+        while (n < len) {
+            if (accBits >= 8) {
+                b[off + n++] = (byte) acc;
+                acc >>>= 8;
+                accBits -= 8;
+            } else if (r < grid.height()) {
+                feed();
+            } else if (accBits > 0) {
+                b[off + n++] = (byte) acc;
+                acc = 0;
+                accBits = 0;
+            } else {
+                break;
+            }
+        }
+        return n == 0 && len > 0 ? -1 : n;
+    }
+
+    /** Дописывает в накопитель до 32 бит текущей строки; кусок не пересекает границу слова. */
+    private void feed() {
+        int width = grid.width();
+        int chunk = Math.min(32, width - pos);
+        long bits = (row[pos >>> 6] >>> (pos & 63)) & ((1L << chunk) - 1);
+        acc |= bits << accBits;
+        accBits += chunk;
+        pos += chunk;
+        if (pos == width) {
+            pos = 0;
+            if (++r < grid.height()) grid.copyRow(r, row);
+        }
+    }
+}
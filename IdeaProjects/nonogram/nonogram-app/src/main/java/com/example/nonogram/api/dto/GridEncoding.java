@@ -0,0 +1,20 @@
+package com.example.nonogram.api.dto;
+
+/**
+ * Как сетки ({@link GridRows}) пишутся в JSON-ответ. Выбирается по {@code Accept}:
+ * <ul>
+ *   <li>{@link #BOOLEANS} — {@code application/json}, массив строк из {@code true}/{@code false};</li>
+ *   <li>{@link #BITS} — {@value #BITS_JSON}, строка base64 с битмапом (см. {@link GridBitmapStream});</li>
+ *   <li>{@link #RLE} — {@value #RLE_JSON}, по строке массив длин серий, чередуя пустые
+ *       и закрашенные и начиная с пустых: {@code [0, 3, 2]} — три закрашенные, две пустые.</li>
+ * </ul>
+ * Сырой битмап без JSON отдаётся как {@code application/octet-stream}.
+ */
+public enum GridEncoding {
+    BOOLEANS,
+    BITS,
+    RLE;
+
+    public static final String BITS_JSON = "application/vnd.nonogram.bits+json";
+    public static final String RLE_JSON = "application/vnd.nonogram.rle+json";
+}
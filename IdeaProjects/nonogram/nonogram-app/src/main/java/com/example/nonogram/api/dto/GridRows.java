@@ -0,0 +1,46 @@
+package com.example.nonogram.api.dto;
+
+import com.example.nonogram.core.model.SolveResult;
+import com.example.nonogram.core.model.Solution;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Arrays;
+
+/**
+ * Сетка ответа, читаемая построчно словами {@code long}: бит {@code c} строки — клетка
+ * {@code c}. Все кодировки ({@link GridEncoding}, сырой битмап) пишутся из неё по строке
+ * за раз, без промежуточной копии всей сетки.
+ */
+@JsonSerialize(using = GridSerializer.class)
+public interface GridRows {
+
+    int height();
+
+    int width();
+
+    /** Пишет строку {@code r} в {@code dst} ({@code Solution.words(width())} слов); биты за шириной — нули. */
+    void copyRow(int r, long[] dst);
+
+    /** Закрашенные клетки решения — прямо из его битов. */
+    static GridRows filled(Solution s) {
+        return new GridRows() {
+            public int height() { return s.height(); }
+            public int width() { return s.width(); }
+            public void copyRow(int r, long[] dst) { s.copyRow(r, dst, 0); }
+        };
+    }
+
+    /** Маска выведенных клеток результата; строки собираются по запросу. */
+    static GridRows known(SolveResult result) {
+        Solution s = result.solution();
+        return new GridRows() {
+            public int height() { return s.height(); }
+            public int width() { return s.width(); }
+            public void copyRow(int r, long[] dst) {
+                Arrays.fill(dst, 0, Solution.words(s.width()), 0L);
+                for (int c = 0; c < s.width(); c++)
+                    if (result.isKnown(r, c)) dst[c >>> 6] |= 1L << c;
+            }
+        };
+    }
+}
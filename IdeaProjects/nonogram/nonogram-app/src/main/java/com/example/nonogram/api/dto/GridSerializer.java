@@ -0,0 +1,61 @@
+package com.example.nonogram.api.dto;
+
+import com.example.nonogram.core.model.Solution;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Пишет {@link GridRows} в кодировке из атрибута {@code GridEncoding.class} писателя
+ * (по умолчанию {@link GridEncoding#BOOLEANS}). Строки читаются по одной в буфер слов —
+ * ни {@code boolean[][]}, ни битмапа целиком.
+ */
+public final class GridSerializer extends StdSerializer<GridRows> {
+
+    public GridSerializer() {
+        super(GridRows.class);
+    }
+
+    @Override
+    public void serialize(GridRows grid, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        GridEncoding encoding = provider.getAttribute(GridEncoding.class) instanceof GridEncoding e ? e : GridEncoding.BOOLEANS;
+        switch (encoding) {
+            case BOOLEANS -> writeBooleans(grid, gen);
+            case BITS -> gen.writeBinary(new GridBitmapStream(grid), (int) GridBitmapStream.size(grid));
+            case RLE -> writeRuns(grid, gen);
+        }
+    }
+
+    private static void writeBooleans(GridRows grid, JsonGenerator gen) throws IOException {
+        int h = grid.height(), w = grid.width();
+        long[] row = new long[Solution.words(w)];
+        gen.writeStartArray(grid, h);
+        for (int r = 0; r < h; r++) {
+            grid.copyRow(r, row);
+            gen.writeStartArray(row, w);
+            for (int c = 0; c < w; c++) gen.writeBoolean((row[c >>> 6] & (1L << c)) != 0);
+            gen.writeEndArray();
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeRuns(GridRows grid, JsonGenerator gen) throws IOException {
+        int h = grid.height(), w = grid.width();
+        long[] row = new long[Solution.words(w)];
+        gen.writeStartArray(grid, h);
+        for (int r = 0; r < h; r++) {
+            grid.copyRow(r, row);
+            gen.writeStartArray();
+            boolean filled = false;
+            for (int pos = 0; pos < w; filled = !filled) {
+                int next = filled ? Solution.nextClearBit(row, 0, w, pos) : Solution.nextSetBit(row, 0, w, pos);
+                gen.writeNumber(next - pos);
+                pos = next;
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.nonogram.api.dto;
+
+import com.example.nonogram.service.SolveJobs;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.NotNull;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record JobDto(
+        @NotNull String id,
+        @NotNull SolveJobs.Status status,
+        SolveResultDto result,
+        String error
+) {}
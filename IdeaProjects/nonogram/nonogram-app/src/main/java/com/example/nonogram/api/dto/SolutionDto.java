@@ -2,8 +2,9 @@ package com.example.nonogram.api.dto;
 
 import jakarta.validation.constraints.NotNull;
 
+/** Решение; кодировка {@code filled} — см. {@link GridEncoding}. */
 public record SolutionDto(
         int height,
         int width,
-        @NotNull boolean[][] filled
-) {}
\ No newline at end of file
+        @NotNull GridRows filled
+) {}
@@ -0,0 +1,18 @@
+package com.example.nonogram.api.dto;
+
+import com.example.nonogram.core.model.SolveStatus;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * Ответ режима перечисления: {@code complete = true} значит, что решений меньше запрошенного
+ * и в списке все. Решение единственное, когда {@code found == 1 && complete}. Статус
+ * TIMEOUT/PARTIAL — перечисление прервано ограничением, и {@code complete} всегда
+ * {@code false}: в списке только найденное до остановки.
+ */
+public record SolutionsDto(
+        @NotNull SolveStatus status,
+        int found,
+        boolean complete,
+        @NotNull List<SolutionDto> solutions
+) {}
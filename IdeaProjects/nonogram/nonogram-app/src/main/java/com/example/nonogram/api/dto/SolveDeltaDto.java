@@ -0,0 +1,17 @@
+package com.example.nonogram.api.dto;
+
+import com.example.nonogram.core.model.SolveStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Событие потока решения: клетки, ставшие известными с прошлого события (индекс
+ * {@code r * width + c}). {@code status} есть только у последнего события.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SolveDeltaDto(
+        SolveStatus status,
+        int[] filled,
+        int[] blank,
+        int known,
+        int total
+) {}
@@ -0,0 +1,18 @@
+package com.example.nonogram.api.dto;
+
+import com.example.nonogram.core.model.SolveStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Ответ решения: те же {@code height}/{@code width}/{@code filled}, что в {@link SolutionDto},
+ * плюс статус. {@code known} приходит, только если известны не все клетки (TIMEOUT, PARTIAL, UNSAT).
+ * Обе сетки кодируются одинаково, см. {@link GridEncoding}.
+ */
+public record SolveResultDto(
+        @NotNull SolveStatus status,
+        int height,
+        int width,
+        @NotNull GridRows filled,
+        @JsonInclude(JsonInclude.Include.NON_NULL) GridRows known
+) {}
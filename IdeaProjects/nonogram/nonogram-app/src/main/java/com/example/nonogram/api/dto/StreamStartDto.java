@@ -0,0 +1,3 @@
+package com.example.nonogram.api.dto;
+
+public record StreamStartDto(int height, int width) {}
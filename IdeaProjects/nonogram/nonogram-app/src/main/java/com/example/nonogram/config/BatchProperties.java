@@ -0,0 +1,45 @@
+package com.example.nonogram.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "nonogram.batch")
+public class BatchProperties {
+
+    /** Потоков общего пула пакетного решения; 0 — по числу ядер. */
+    private int parallelism = 0;
+
+    /** Сколько пазлов одного запроса может быть в работе одновременно; 0 — вдвое больше потоков. */
+    private int maxInFlight = 0;
+
+    /**
+     * Сколько может идти один пакетный ответ; 0 — без ограничения. Общий
+     * {@code spring.mvc.async.request-timeout} на пакет не действует.
+     */
+    private Duration timeout = Duration.ZERO;
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.nonogram.config;
+
+import com.example.nonogram.api.GridJsonConverter;
+import com.example.nonogram.api.GridOctetStreamConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Конвертеры компактных кодировок сеток; Spring Boot ставит их перед стандартными. */
+@Configuration
+public class GridEncodingConfig {
+
+    @Bean
+    public GridJsonConverter gridJsonConverter(ObjectMapper mapper) {
+        return new GridJsonConverter(mapper);
+    }
+
+    @Bean
+    public GridOctetStreamConverter gridOctetStreamConverter() {
+        return new GridOctetStreamConverter();
+    }
+}
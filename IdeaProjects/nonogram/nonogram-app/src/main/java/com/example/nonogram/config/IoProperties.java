@@ -2,14 +2,25 @@ package com.example.nonogram.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @ConfigurationProperties(prefix = "nonogram.io")
 public class IoProperties {
-    public enum Reader { DOM, SAX, STAX, JACKSON }
-    public enum Writer { DOM, SAX, STAX }
+    public enum Reader { DOM, SAX, STAX, JACKSON, FAST }
+    public enum Writer { DOM, SAX, STAX, DIRECT }
 
     private Reader reader = Reader.SAX;
     private Writer writer = Writer.SAX;
 
+    /** Отступы в выводе писателя {@code direct}; у остальных формат вывода фиксирован. */
+    private boolean indent = true;
+
+    /**
+     * Сколько может идти потоковый ответ {@code /api/export/jpnxml}; 0 — без ограничения.
+     * Общий {@code spring.mvc.async.request-timeout} на экспорт не действует.
+     */
+    private Duration exportTimeout = Duration.ZERO;
+
     public Reader getReader() {
         return reader;
     }
@@ -25,4 +36,20 @@ public class IoProperties {
     public void setWriter(Writer writer) {
         this.writer = writer;
     }
-}
\ No newline at end of file
+
+    public boolean isIndent() {
+        return indent;
+    }
+
+    public void setIndent(boolean indent) {
+        this.indent = indent;
+    }
+
+    public Duration getExportTimeout() {
+        return exportTimeout;
+    }
+
+    public void setExportTimeout(Duration exportTimeout) {
+        this.exportTimeout = exportTimeout;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.nonogram.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "nonogram.jobs")
+public class JobProperties {
+
+    /** Сколько задач решается одновременно. */
+    private int threads = 2;
+
+    /** Сколько задач может ждать в очереди; дальше — отказ. */
+    private int queueCapacity = 100;
+
+    /** Сколько хранить завершённую задачу после окончания. */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
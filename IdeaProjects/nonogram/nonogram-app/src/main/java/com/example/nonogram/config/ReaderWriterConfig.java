@@ -1,6 +1,7 @@
 package com.example.nonogram.config;
 
 import com.example.nonogram.adapters.*;
+import com.example.nonogram.adapters.reader.JacksonJpnXmlReader;
 import com.example.nonogram.core.io.JpnXmlReader;
 import com.example.nonogram.core.io.JpnXmlWriter;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -17,7 +18,8 @@ public class ReaderWriterConfig {
             case SAX    -> new SaxJpnXmlReader();
             case STAX   -> new StaxJpnXmlReader();
             case DOM    -> new DomJpnXmlReader();
-            case JACKSON/* когда реализуешь */ -> throw new IllegalStateException("Jackson reader not implemented");
+            case JACKSON -> new JacksonJpnXmlReader();
+            case FAST   -> new FastJpnXmlReader();
         };
     }
 
@@ -27,6 +29,7 @@ public class ReaderWriterConfig {
             case SAX   -> new SaxJpnXmlWriter();
             case STAX  -> new StaxJpnXmlWriter();
             case DOM   -> new DomJpnXmlWriter();
+            case DIRECT -> new DirectJpnXmlWriter(props.isIndent());
         };
     }
 }
@@ -0,0 +1,21 @@
+package com.example.nonogram.config;
+
+import com.example.nonogram.service.ResultCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(ResultCacheProperties.class)
+public class ResultCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "nonogram.result-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ResultCache resultCache(ResultCacheProperties props) {
+        return new ResultCache(props.getMaxEntries(), props.getMaxSize().toBytes(),
+                props.getTtl().toMillis(), Clock.systemUTC());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.nonogram.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "nonogram.result-cache")
+public class ResultCacheProperties {
+
+    /** Кэшировать ли готовые решения целых пазлов. */
+    private boolean enabled = true;
+
+    /** Сколько пазлов держать в кэше. */
+    private int maxEntries = 1000;
+
+    /** Предел памяти под записи (оценка). */
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+
+    /** Время жизни записи; 0 — без ограничения. */
+    private Duration ttl = Duration.ofMinutes(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.nonogram.config;
+
+import com.example.nonogram.solver.JPNSolver;
+import com.example.nonogram.solver.LineCache;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SolverProperties.class)
+public class SolverConfig {
+
+    @Bean
+    public JPNSolver jpnSolver(SolverProperties props) {
+        long cacheBytes = props.getLineCacheSize().toBytes();
+        LineCache lineCache = cacheBytes > 0 ? new LineCache(cacheBytes) : null;
+        return new JPNSolver(props.getParallelism(), props.getParallelThreshold(), props.getProbeBudget(), lineCache);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.nonogram.config;
+
+import com.example.nonogram.solver.JPNSolver;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "nonogram.solver")
+public class SolverProperties {
+
+    /** Потоков ForkJoinPool для волн линий; 0 или 1 — всё последовательно. */
+    private int parallelism = 1;
+
+    /** С какого числа клеток (height * width) включать параллельный режим. */
+    private int parallelThreshold = 10_000;
+
+    /** Сколько клеток можно прощупать пробингом за одно решение; 0 — сразу ветвиться. */
+    private long probeBudget = JPNSolver.DEFAULT_PROBE_BUDGET;
+
+    /** Предел памяти общего кэша результатов линий; 0 — без кэша. */
+    private DataSize lineCacheSize = DataSize.ofMegabytes(16);
+
+    /** Ограничения одного решения в HTTP-запросах. */
+    private final Limits limits = new Limits();
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public long getProbeBudget() {
+        return probeBudget;
+    }
+
+    public void setProbeBudget(long probeBudget) {
+        this.probeBudget = probeBudget;
+    }
+
+    public DataSize getLineCacheSize() {
+        return lineCacheSize;
+    }
+
+    public void setLineCacheSize(DataSize lineCacheSize) {
+        this.lineCacheSize = lineCacheSize;
+    }
+
+    public Limits getLimits() {
+        return limits;
+    }
+
+    public static class Limits {
+
+        /** Дедлайн, если клиент не передал свой. */
+        private Duration defaultTimeout = Duration.ofSeconds(10);
+
+        /** Больше этого клиент попросить не может. */
+        private Duration maxTimeout = Duration.ofSeconds(60);
+
+        /** Потолок догадок поиска на одно решение; 0 — без ограничения. */
+        private long maxNodes = 1_000_000;
+
+        public Duration getDefaultTimeout() {
+            return defaultTimeout;
+        }
+
+        public void setDefaultTimeout(Duration defaultTimeout) {
+            this.defaultTimeout = defaultTimeout;
+        }
+
+        public Duration getMaxTimeout() {
+            return maxTimeout;
+        }
+
+        public void setMaxTimeout(Duration maxTimeout) {
+            this.maxTimeout = maxTimeout;
+        }
+
+        public long getMaxNodes() {
+            return maxNodes;
+        }
+
+        public void setMaxNodes(long maxNodes) {
+            this.maxNodes = maxNodes;
+        }
+    }
+}
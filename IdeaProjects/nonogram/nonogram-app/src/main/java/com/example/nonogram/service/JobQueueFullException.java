@@ -0,0 +1,8 @@
+package com.example.nonogram.service;
+
+/** Очередь задач решения заполнена — клиенту стоит повторить позже. */
+public class JobQueueFullException extends RuntimeException {
+    public JobQueueFullException(int depth) {
+        super("Solve job queue is full (" + depth + " waiting)");
+    }
+}
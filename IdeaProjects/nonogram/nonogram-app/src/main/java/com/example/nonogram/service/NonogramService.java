@@ -1,14 +1,21 @@
 package com.example.nonogram.service;
+import com.example.nonogram.config.SolverProperties;
 import com.example.nonogram.core.AntiSolver;
+import com.example.nonogram.core.SolveLimits;
+import com.example.nonogram.core.SolveListener;
+import com.example.nonogram.core.io.JpnXmlLineWriter;
 import com.example.nonogram.core.io.JpnXmlReader;
 import com.example.nonogram.core.io.JpnXmlWriter;
 import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.SolveAllResult;
+import com.example.nonogram.core.model.SolveResult;
+import com.example.nonogram.core.model.SolveStatus;
 import com.example.nonogram.core.model.Solution;
 import com.example.nonogram.core.Solver;
 import com.example.nonogram.util.BuiltinPuzzles;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -24,23 +31,78 @@ public class NonogramService {
     private final AntiSolver antiSolver;
     private final JpnXmlWriter writer;
     private final BuiltinPuzzles builtin;
+    private final ResultCache cache;            // null — кэш решений выключен
+    private final SolverProperties.Limits limits;
 
     public NonogramService(JpnXmlReader reader,
                            Solver solver,
                            AntiSolver antiSolver,
                            JpnXmlWriter writer,
-                           BuiltinPuzzles builtin) {
+                           BuiltinPuzzles builtin,
+                           ObjectProvider<ResultCache> cache,
+                           SolverProperties solverProperties) {
         this.reader = reader;
         this.solver = solver;
         this.antiSolver = antiSolver;
         this.writer = writer;
         this.builtin = builtin;
+        this.cache = cache.getIfAvailable();
+        this.limits = solverProperties.getLimits();
+    }
+
+    /**
+     * Ограничения для запроса: то, что попросил клиент, но не больше серверных потолков
+     * ({@code nonogram.solver.limits}). {@code null} — взять значение по умолчанию.
+     */
+    public SolveLimits limitsFor(Long timeoutMs, Long maxNodes) {
+        long maxTimeout = limits.getMaxTimeout().toMillis();
+        long timeout = timeoutMs != null ? timeoutMs : limits.getDefaultTimeout().toMillis();
+        if (maxTimeout > 0 && (timeout <= 0 || timeout > maxTimeout)) timeout = maxTimeout;
+
+        long nodes = maxNodes != null ? maxNodes : limits.getMaxNodes();
+        if (limits.getMaxNodes() > 0 && (nodes <= 0 || nodes > limits.getMaxNodes())) nodes = limits.getMaxNodes();
+        return new SolveLimits(Math.max(0, timeout), Math.max(0, nodes), null);
+    }
+
+    /**
+     * Решает пазл в пределах {@code limits}; одинаковые подсказки из любого источника берутся
+     * из {@link ResultCache}. Кэшируются только полные решения.
+     */
+    public SolveResult solve(Crossword cw, SolveLimits limits) {
+        return solve(cw, limits, null);
+    }
+
+    /** То же с наблюдателем за ходом решения; при попадании в кэш он не вызывается. */
+    public SolveResult solve(Crossword cw, SolveLimits limits, SolveListener listener) {
+        if (cache != null) {
+            Solution cached = cache.get(cw);
+            if (cached != null) return SolveResult.solved(cached);
+        }
+        SolveResult result = solver.solve(cw, limits, listener);
+        if (cache != null && result.status() == SolveStatus.SOLVED) cache.put(cw, result.solution());
+        return result;
+    }
+
+    /**
+     * Перечисляет до {@code maxSolutions} решений в пределах {@code limits}; остановившись
+     * раньше, отдаёт найденное со статусом TIMEOUT/PARTIAL. Кэш решений здесь не участвует.
+     */
+    public SolveAllResult solveAll(Crossword cw, int maxSolutions, SolveLimits limits) {
+        return solver.solveAll(cw, maxSolutions, limits);
+    }
+
+    /** Кэш решений или {@code null}, если он выключен. */
+    public ResultCache getResultCache() {
+        return cache;
     }
 
     public Result readAndSolve(InputStream in) {
+        return readAndSolve(in, limitsFor(null, null));
+    }
+
+    public Result readAndSolve(InputStream in, SolveLimits limits) {
         Crossword cw = reader.read(in);
-        Solution sol = solver.solve(cw);
-        return new Result(cw, sol);
+        return new Result(cw, solve(cw, limits));
     }
 
     public Result readAndSolve(Path path) throws IOException {
@@ -49,15 +111,24 @@ public class NonogramService {
         }
     }
 
+    public Crossword readBuiltin(String name) throws IOException {
+        try (InputStream in = builtin.open(name)) {
+            return reader.read(in);
+        }
+    }
+
     public Result readAndSolveBuiltin(String name) throws IOException {
+        return readAndSolveBuiltin(name, limitsFor(null, null));
+    }
+
+    public Result readAndSolveBuiltin(String name, SolveLimits limits) throws IOException {
         try (InputStream in = builtin.open(name)) {
-            return readAndSolve(in);
+            return readAndSolve(in, limits);
         }
     }
 
     public void saveAsJpnXml(Solution solution, OutputStream out) {
-        boolean[][] grid = toGrid(solution);
-        Crossword cw = antiSolver.antiSolve(grid);
+        Crossword cw = antiSolver.antiSolve(solution);
         writer.write(cw, out);
     }
 
@@ -67,23 +138,21 @@ public class NonogramService {
         }
     }
 
-    public byte[] writeToBytes(Crossword cw) throws java.io.IOException {
-        try (var out = new ByteArrayOutputStream()) {
-            writer.write(cw, out);
-            return out.toByteArray();
-        }
+    /**
+     * JPNXML по картинке прямо в {@code out}: подсказки строк пишутся по мере вычисления,
+     * столбцы — следом; ни {@link Crossword}, ни буфера под весь документ. Сетку стоит
+     * проверить до начала ответа ({@link AntiSolver#requireRectangular}). При ошибке документ
+     * остаётся незакрытым.
+     */
+    public void exportJpnXml(boolean[][] filled, OutputStream out) {
+        JpnXmlLineWriter lines = writer.open(out);
+        antiSolver.antiSolve(filled, lines);
+        lines.close();
     }
 
-    private static boolean[][] toGrid(Solution s) {
-        int h = s.height(), w = s.width();
-        boolean[][] g = new boolean[h][w];
-        for (int r = 0; r < h; r++) {
-            for (int c = 0; c < w; c++) {
-                g[r][c] = s.isFilled(r, c);
-            }
+    public record Result(Crossword crossword, SolveResult outcome) {
+        public Solution solution() {
+            return outcome.solution();
         }
-        return g;
     }
-
-    public record Result(Crossword crossword, Solution solution) {}
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.example.nonogram.service;
+
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.Solution;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Кэш готовых решений целых пазлов. Ключ — каноническая запись подсказок (размеры, затем
+ * по каждой линии число блоков и их длины, нули отброшены, так что {@code [0]} и {@code []}
+ * совпадают) с заранее посчитанным 64-битным хэшем; значение — сетка, упакованная в биты.
+ * <p>
+ * LRU ({@link LinkedHashMap} в порядке доступа) с тремя пределами: число записей, оценка
+ * памяти и время жизни записи. Устаревшая запись выбрасывается при обращении к ней или
+ * вытесняется как самая давняя. {@link Solution} изменяемый, поэтому наружу всегда отдаётся
+ * свежая копия.
+ */
+public final class ResultCache {
+
+    // запись LinkedHashMap + ключ + значение + заголовки двух массивов
+    private static final long ENTRY_OVERHEAD = 128;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    private final LinkedHashMap<Key, Entry> map = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxEntries сколько пазлов держать, больше нуля
+     * @param maxBytes   примерный предел памяти под записи
+     * @param ttlMillis  сколько живёт запись; 0 — без ограничения
+     */
+    public ResultCache(int maxEntries, long maxBytes, long ttlMillis, Clock clock) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be > 0, got " + maxEntries);
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /** Решение из кэша (копия, привязанная к {@code crossword}) или {@code null}. */
+    public Solution get(Crossword crossword) {
+        Key key = Key.of(crossword);
+        long[] bits;
+        synchronized (this) {
+            Entry e = map.get(key);
+            if (e != null && ttlMillis > 0 && clock.millis() - e.createdAt >= ttlMillis) {
+                remove(key, e);
+                e = null;
+            }
+            if (e == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            bits = e.bits;
+        }
+        return unpack(crossword, bits);
+    }
+
+    public void put(Crossword crossword, Solution solution) {
+        Key key = Key.of(crossword);
+        Entry entry = new Entry(pack(solution), clock.millis());
+        synchronized (this) {
+            Entry old = map.put(key, entry);
+            if (old != null) bytes -= sizeOf(key, old);
+            bytes += sizeOf(key, entry);
+            Iterator<Map.Entry<Key, Entry>> it = map.entrySet().iterator();
+            while ((map.size() > maxEntries || bytes > maxBytes) && it.hasNext()) {
+                Map.Entry<Key, Entry> eldest = it.next();
+                bytes -= sizeOf(eldest.getKey(), eldest.getValue());
+                it.remove();
+                evictions++;
+            }
+        }
+    }
+
+    private void remove(Key key, Entry e) {
+        map.remove(key);
+        bytes -= sizeOf(key, e);
+        evictions++;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getEntries() {
+        return map.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    private static long sizeOf(Key key, Entry e) {
+        return ENTRY_OVERHEAD + 4L * key.data.length + 8L * e.bits.length;
+    }
+
+    private static long[] pack(Solution s) {
+        return s.toRowBits();
+    }
+
+    private static Solution unpack(Crossword cw, long[] bits) {
+        return Solution.ofRowBits(cw, bits.clone());
+    }
+
+    private record Entry(long[] bits, long createdAt) {}
+
+    /** Канонические подсказки пазла; равенство — по содержимому, хэш посчитан один раз. */
+    static final class Key {
+        private final int[] data;
+        private final long hash;
+
+        private Key(int[] data) {
+            this.data = data;
+            long h = 0;
+            for (int v : data) h = (h + v) * 0x9E37_79B9_7F4A_7C15L;
+            this.hash = h ^ (h >>> 29);
+        }
+
+        static Key of(Crossword cw) {
+            int[] data = new int[2 + cw.height() + cw.width() + cw.clueCount()];
+            int i = 0;
+            data[i++] = cw.height();
+            data[i++] = cw.width();
+            for (int r = 0; r < cw.height(); r++) {
+                int countAt = i++;
+                for (int k = 0, n = cw.rowClueLength(r); k < n; k++) {
+                    int v = cw.rowClue(r, k);
+                    if (v > 0) data[i++] = v;
+                }
+                data[countAt] = i - countAt - 1;
+            }
+            for (int c = 0; c < cw.width(); c++) {
+                int countAt = i++;
+                for (int k = 0, n = cw.columnClueLength(c); k < n; k++) {
+                    int v = cw.columnClue(c, k);
+                    if (v > 0) data[i++] = v;
+                }
+                data[countAt] = i - countAt - 1;
+            }
+            return new Key(i == data.length ? data : Arrays.copyOf(data, i));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && other.hash == hash && Arrays.equals(data, other.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.nonogram.service;
+
+import com.example.nonogram.config.JobProperties;
+import com.example.nonogram.core.SolveLimits;
+import com.example.nonogram.core.SolveListener;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.SolveResult;
+import com.example.nonogram.core.model.SolveStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Асинхронные задачи решения. Задачи выполняются на собственном ограниченном пуле
+ * ({@code nonogram.jobs.threads}) с очередью фиксированной длины, так что HTTP-потоки
+ * не ждут решения, а параллелизм решателя настраивается отдельно от веб-сервера.
+ * Переполненная очередь — {@link JobQueueFullException}. Завершённые задачи живут
+ * {@code nonogram.jobs.ttl} и вычищаются при следующих обращениях.
+ */
+@Service
+@EnableConfigurationProperties(JobProperties.class)
+public class SolveJobs implements AutoCloseable {
+
+    public enum Status { QUEUED, RUNNING, DONE, CANCELLED, FAILED }
+
+    /** Снимок задачи; {@code result} есть только у DONE, {@code error} — у FAILED. */
+    public record Snapshot(String id, Status status, SolveResult result, String error) {}
+
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final NonogramService service;
+    private final ThreadPoolExecutor executor;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private volatile long nextSweep;
+
+    @Autowired
+    public SolveJobs(NonogramService service, JobProperties props) {
+        this(service, props, Clock.systemUTC());
+    }
+
+    SolveJobs(NonogramService service, JobProperties props, Clock clock) {
+        this.service = service;
+        this.ttlMillis = props.getTtl().toMillis();
+        this.clock = clock;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(props.getThreads(), props.getThreads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(props.getQueueCapacity()), r -> {
+                    Thread t = new Thread(r, "solve-job-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * Ставит задачу в очередь.
+     *
+     * @throws JobQueueFullException если очередь заполнена
+     */
+    public Snapshot submit(Crossword crossword, SolveLimits limits) {
+        return submit(crossword, limits, null, null);
+    }
+
+    /**
+     * То же с наблюдателем за ходом решения и колбэком по завершении (оба могут быть
+     * {@code null}). Колбэк вызывается из потока пула, в том числе для отменённой задачи.
+     */
+    public Snapshot submit(Crossword crossword, SolveLimits limits, SolveListener listener,
+                           Consumer<Snapshot> onFinish) {
+        sweepExpired();
+        Job job = new Job(UUID.randomUUID().toString(), onFinish);
+        SolveLimits cancellable = limits.withCancellation(() -> job.cancelled || limits.isCancelled());
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> run(job, crossword, cancellable, listener));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new JobQueueFullException(executor.getQueue().size());
+        }
+        return job.snapshot();
+    }
+
+    public Optional<Snapshot> get(String id) {
+        sweepExpired();
+        return Optional.ofNullable(jobs.get(id)).map(Job::snapshot);
+    }
+
+    /**
+     * Отменяет задачу: ждущая убирается из очереди и сразу освобождает в ней место, идущее
+     * решение останавливается кооперативно.
+     */
+    public Optional<Snapshot> cancel(String id) {
+        Job job = jobs.get(id);
+        if (job == null) return Optional.empty();
+        synchronized (job) {
+            if (job.status == Status.QUEUED || job.status == Status.RUNNING) {
+                job.cancelled = true;
+                if (job.status == Status.QUEUED) finish(job, Status.CANCELLED, null, null);
+            }
+        }
+        notifyFinished(job);
+        Future<?> f = job.future;
+        if (f != null && f.cancel(false)) {
+            // cancel только помечает FutureTask — из очереди пула его надо вынуть явно
+            executor.remove((Runnable) f);
+        }
+        return Optional.of(job.snapshot());
+    }
+
+    /** Сколько задач ждёт в очереди. */
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private void run(Job job, Crossword crossword, SolveLimits limits, SolveListener listener) {
+        synchronized (job) {
+            if (job.status != Status.QUEUED) return;
+            job.status = Status.RUNNING;
+        }
+        try {
+            SolveResult result = service.solve(crossword, limits, listener);
+            synchronized (job) {
+                if (job.cancelled && result.status() == SolveStatus.PARTIAL) finish(job, Status.CANCELLED, null, null);
+                else finish(job, Status.DONE, result, null);
+            }
+        } catch (Throwable e) {
+            // и Error (OOM, переполнение стека): иначе задача навсегда осталась бы RUNNING
+            synchronized (job) {
+                finish(job, Status.FAILED, null, e.getMessage() != null ? e.getMessage() : e.toString());
+            }
+            if (e instanceof Error error) throw error;
+        } finally {
+            notifyFinished(job);
+        }
+    }
+
+    /** Вызывает колбэк завершения ровно один раз, когда задача уже не QUEUED/RUNNING. */
+    private void notifyFinished(Job job) {
+        Consumer<Snapshot> callback;
+        Snapshot snapshot;
+        synchronized (job) {
+            if (job.onFinish == null || job.finishedAt < 0) return;
+            callback = job.onFinish;
+            job.onFinish = null;
+            snapshot = job.snapshot();
+        }
+        callback.accept(snapshot);
+    }
+
+    private void finish(Job job, Status status, SolveResult result, String error) {
+        job.status = status;
+        job.result = result;
+        job.error = error;
+        job.finishedAt = clock.millis();
+    }
+
+    /** Выбрасывает задачи, завершённые больше TTL назад; не чаще раза в секунду. */
+    private void sweepExpired() {
+        long now = clock.millis();
+        if (now < nextSweep) return;
+        nextSweep = now + SWEEP_INTERVAL_MILLIS;
+        jobs.values().removeIf(job -> {
+            synchronized (job) {
+                return job.finishedAt >= 0 && now - job.finishedAt >= ttlMillis;
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static final class Job {
+        final String id;
+        volatile boolean cancelled;
+        volatile Future<?> future;
+        Status status = Status.QUEUED;
+        SolveResult result;
+        String error;
+        long finishedAt = -1;
+        Consumer<Snapshot> onFinish;
+
+        Job(String id, Consumer<Snapshot> onFinish) {
+            this.id = id;
+            this.onFinish = onFinish;
+        }
+
+        synchronized Snapshot snapshot() {
+            return new Snapshot(id, status, result, error);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.nonogram.solver;
+
+/**
+ * Упакованная сетка решателя: для каждой линии два битсета — «точно закрашена» и
+ * «точно пустая» — в словах {@code long}. Хранятся два зеркала, построчное и поколоночное,
+ * и {@link #set} держит их согласованными, так что чтение любой линии — это копия слов,
+ * а не обход массива ссылок. Линии длиннее 64 клеток занимают несколько слов.
+ */
+final class BitGrid {
+
+    private final int height;
+    private final int width;
+    private final int rowWords;        // слов на строку (длина строки = width)
+    private final int colWords;        // слов на колонку (длина колонки = height)
+
+    private final long[] rowFilled;    // [height * rowWords]
+    private final long[] rowBlank;
+    private final long[] colFilled;    // [width * colWords]
+    private final long[] colBlank;
+
+    BitGrid(int height, int width) {
+        this.height = height;
+        this.width = width;
+        this.rowWords = words(width);
+        this.colWords = words(height);
+        rowFilled = new long[height * rowWords];
+        rowBlank = new long[height * rowWords];
+        colFilled = new long[width * colWords];
+        colBlank = new long[width * colWords];
+    }
+
+    static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    int height() { return height; }
+    int width() { return width; }
+
+    /** Код клетки: {@link LineSolver#UNKNOWN}, {@link LineSolver#FILLED} или {@link LineSolver#BLANK}. */
+    byte get(int r, int c) {
+        int w = r * rowWords + (c >>> 6);
+        long bit = 1L << c;
+        if ((rowFilled[w] & bit) != 0) return LineSolver.FILLED;
+        if ((rowBlank[w] & bit) != 0) return LineSolver.BLANK;
+        return LineSolver.UNKNOWN;
+    }
+
+    boolean isFilled(int r, int c) {
+        return (rowFilled[r * rowWords + (c >>> 6)] & (1L << c)) != 0;
+    }
+
+    /** Записывает код клетки в оба зеркала (предыдущее значение затирается). */
+    void set(int r, int c, byte code) {
+        int rw = r * rowWords + (c >>> 6);
+        long rbit = 1L << c;
+        int cw = c * colWords + (r >>> 6);
+        long cbit = 1L << r;
+
+        rowFilled[rw] &= ~rbit;
+        rowBlank[rw] &= ~rbit;
+        colFilled[cw] &= ~cbit;
+        colBlank[cw] &= ~cbit;
+        if (code == LineSolver.FILLED) {
+            rowFilled[rw] |= rbit;
+            colFilled[cw] |= cbit;
+        } else if (code == LineSolver.BLANK) {
+            rowBlank[rw] |= rbit;
+            colBlank[cw] |= cbit;
+        }
+    }
+
+    /** Копия построчного битсета закрашенных клеток — в раскладке {@link com.example.nonogram.core.model.Solution}. */
+    long[] copyFilledRows() {
+        return rowFilled.clone();
+    }
+
+    void readRow(int r, long[] filled, long[] blank) {
+        System.arraycopy(rowFilled, r * rowWords, filled, 0, rowWords);
+        System.arraycopy(rowBlank, r * rowWords, blank, 0, rowWords);
+    }
+
+    void readColumn(int c, long[] filled, long[] blank) {
+        System.arraycopy(colFilled, c * colWords, filled, 0, colWords);
+        System.arraycopy(colBlank, c * colWords, blank, 0, colWords);
+    }
+}
@@ -1,78 +1,281 @@
 package com.example.nonogram.solver;
 
 import com.example.nonogram.core.AntiSolver;
+import com.example.nonogram.core.ClueSink;
 import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.Solution;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.stream.IntStream;
 
+/**
+ * Подсказки по картинке. Работает на упакованных строках (раскладка {@link Solution}):
+ * блоки строки ищутся по словам через {@link Long#numberOfTrailingZeros}, а для столбцов
+ * сетка сначала транспонируется блоками 64×64 бит, и столбцы сканируются так же, как
+ * строки, — без шагов через всю сетку на каждую клетку.
+ * <p>
+ * Подсказки пишутся сразу в плоский массив {@link Crossword#ofFlat}: сначала по
+ * {@link Long#bitCount} считается число блоков каждой линии, затем блоки ложатся на свои
+ * места. Начиная с {@link #PARALLEL_CELLS} клеток каждый проход делится по линиям между
+ * потоками общего {@link java.util.concurrent.ForkJoinPool}.
+ */
 @Component
 public class JPNAntiSolver implements AntiSolver {
 
+    /** С какого числа клеток работа делится между потоками. */
+    static final long PARALLEL_CELLS = 1L << 20;
+
     @Override
     public Crossword antiSolve(boolean[][] filled) {
-        validateRect(filled);
+        AntiSolver.requireRectangular(filled);
+
+        int h = filled.length;
+        int w = filled[0].length;
+        int rowWords = Solution.words(w);
+        long[] rows = new long[h * rowWords];
+        range(h, parallel(h, w)).forEach(r -> pack(filled[r], rows, r * rowWords));
+        return fromRows(new PackedRows(rows, rowWords), h, w);
+    }
+
+    /** Читает слова решения на месте, без копии всей сетки. */
+    @Override
+    public Crossword antiSolve(Solution solution) {
+        return fromRows(new SolutionRows(solution), solution.height(), solution.width());
+    }
 
-        List<List<Integer>> rows = new ArrayList<>();
-        List<List<Integer>> columns = new ArrayList<>();
+    /**
+     * Строка за строкой: её блоки сразу уходят в {@code out}, а по разнице с предыдущей
+     * строкой ({@code cur & ~prev} — начала, {@code prev & ~cur} — концы) закрываются блоки
+     * столбцов. Блоки столбца копятся в его собственном {@code int[]} и отдаются после строк.
+     */
+    @Override
+    public void antiSolve(boolean[][] filled, ClueSink out) {
+        AntiSolver.requireRectangular(filled);
 
         int h = filled.length;
         int w = filled[0].length;
+        int words = Solution.words(w);
+        long[] prev = new long[words];
+        long[] cur = new long[words];
+        int[] rowRuns = new int[(w + 1) >>> 1];
+        int[] runStart = new int[w];
+        ColumnRuns columns = new ColumnRuns(w);
 
-        int blockLength = 0;
-        List<Integer> row;
-        for (int r = 0; r < h; r++) {
-            row = new ArrayList<>();
-            for (int c = 0; c < w; c++) {
-                if (filled[r][c]) {
-                    blockLength += 1;
-                } else {
-                    if (blockLength > 0) {
-                        row.add(blockLength);
-                        blockLength = 0;
-                    }
+        for (int r = 0; r <= h; r++) {
+            if (r < h) {
+                pack(filled[r], cur, 0);
+                out.row(rowRuns, 0, writeRuns(cur, 0, w, rowRuns, 0));
+            } else {
+                Arrays.fill(cur, 0L);                   // за последней строкой закрываются все блоки
+            }
+            for (int i = 0; i < words; i++) {
+                long p = prev[i], x = cur[i];
+                for (long ends = p & ~x; ends != 0; ends &= ends - 1) {
+                    int c = (i << 6) + Long.numberOfTrailingZeros(ends);
+                    columns.add(c, r - runStart[c]);
                 }
+                for (long starts = x & ~p; starts != 0; starts &= starts - 1)
+                    runStart[(i << 6) + Long.numberOfTrailingZeros(starts)] = r;
+            }
+            long[] t = prev;
+            prev = cur;
+            cur = t;
+        }
+        columns.drainTo(out);
+    }
+
+    /** Упаковывает строку картинки в слова {@code dst} с позиции {@code at}. */
+    private static void pack(boolean[] row, long[] dst, int at) {
+        for (int c0 = 0, w = row.length; c0 < w; c0 += 64) {
+            long word = 0;
+            for (int k = 0, n = Math.min(64, w - c0); k < n; k++)
+                word |= (row[c0 + k] ? 1L : 0L) << k;      // без ветвления на каждую клетку
+            dst[at + (c0 >>> 6)] = word;
+        }
+    }
+
+    /**
+     * Строки идут полосами по 64: каждая строка полосы копируется в буфер на одну строку
+     * для подсчёта и выписывания её блоков, а сама полоса транспонируется в столбцы.
+     */
+    private static Crossword fromRows(Rows rows, int h, int w) {
+        boolean parallel = parallel(h, w);
+        int rowWords = Solution.words(w);
+        int colWords = Solution.words(h);
+        long[] columns = new long[w * colWords];
+
+        // сначала число блоков каждой линии, по нему — точные смещения, затем сами блоки
+        int[] rowStart = new int[h + 1];
+        int[] columnStart = new int[w + 1];
+        range(colWords, parallel).forEach(band -> {
+            long[] row = new long[rowWords];
+            for (int r = band << 6, end = Math.min(h, r + 64); r < end; r++) {
+                rows.copyRow(r, row);
+                rowStart[r + 1] = countRuns(row, 0, w);
             }
-            if (blockLength > 0) {
-                row.add(blockLength);
-                blockLength = 0;
+            transposeBand(rows, band, h, w, columns);
+        });
+        range(w, parallel).forEach(c -> columnStart[c + 1] = countRuns(columns, c * colWords, h));
+        for (int r = 0; r < h; r++) rowStart[r + 1] += rowStart[r];
+        columnStart[0] = rowStart[h];
+        for (int c = 0; c < w; c++) columnStart[c + 1] += columnStart[c];
+
+        int[] clues = new int[columnStart[w]];
+        range(colWords, parallel).forEach(band -> {
+            long[] row = new long[rowWords];
+            for (int r = band << 6, end = Math.min(h, r + 64); r < end; r++) {
+                rows.copyRow(r, row);
+                writeRuns(row, 0, w, clues, rowStart[r]);
             }
-            rows.add(row);
+        });
+        range(w, parallel).forEach(c -> writeRuns(columns, c * colWords, h, clues, columnStart[c]));
+        return Crossword.ofFlat(clues, rowStart, columnStart);
+    }
+
+    /**
+     * Полоса строк {@code band * 64 ..} в поколоночную раскладку: столбец {@code c} —
+     * {@code words(h)} слов с {@code c * words(h)}, бит {@code r} — клетка строки {@code r}.
+     * Каждый блок 64 строки × 64 столбца транспонируется в регистрах и пишется на место целиком.
+     */
+    private static void transposeBand(Rows rows, int band, int h, int w, long[] columns) {
+        int colWords = Solution.words(h);
+        long[] block = new long[64];
+        int r0 = band << 6;
+        int rowsInBlock = Math.min(64, h - r0);
+        for (int cw = 0, rowWords = Solution.words(w); cw < rowWords; cw++) {
+            for (int i = 0; i < rowsInBlock; i++) block[i] = rows.word(r0 + i, cw);
+            Arrays.fill(block, rowsInBlock, 64, 0L);
+            transpose64(block);
+            int c0 = cw << 6;
+            for (int k = 0, n = Math.min(64, w - c0); k < n; k++) columns[(c0 + k) * colWords + band] = block[k];
         }
+    }
 
-        List<Integer> column;
-        for (int c = 0; c < w; c++) {
-            column = new ArrayList<>();
-            for (int r = 0; r < h; r++) {
-                if (filled[r][c]) {
-                    blockLength += 1;
-                } else {
-                    if (blockLength > 0) {
-                        column.add(blockLength);
-                        blockLength = 0;
-                    }
-                }
+    /** Транспонирует матрицу 64×64 бит на месте: бит {@code j} слова {@code i} ↔ бит {@code i} слова {@code j}. */
+    static void transpose64(long[] a) {
+        long m = 0x0000_0000_FFFF_FFFFL;
+        for (int j = 32; j != 0; j >>>= 1, m ^= m << j) {
+            for (int k = 0; k < 64; k = ((k | j) + 1) & ~j) {
+                long t = ((a[k] >>> j) ^ a[k | j]) & m;
+                a[k] ^= t << j;
+                a[k | j] ^= t;
             }
-            if (blockLength > 0) {
-                column.add(blockLength);
-                blockLength = 0;
+        }
+    }
+
+    /** Число блоков линии: единицы, перед которыми ноль (или начало линии). */
+    private static int countRuns(long[] bits, int from, int length) {
+        int n = 0;
+        long carry = 0;
+        for (int i = from, end = from + Solution.words(length); i < end; i++) {
+            long x = bits[i];
+            n += Long.bitCount(x & ~((x << 1) | carry));
+            carry = x >>> 63;
+        }
+        return n;
+    }
+
+    /**
+     * Блоки линии в {@code out} с позиции {@code at}; возвращает их число. Слово за словом:
+     * начало блока — младшая единица, конец — младший ноль выше неё; блок, дошедший до
+     * конца слова, продолжается в следующем. Биты за длиной линии нулевые.
+     */
+    private static int writeRuns(long[] bits, int from, int length, int[] out, int at) {
+        int n = 0;
+        int open = 0;                                   // длина блока, перешедшего из прошлого слова
+        for (int i = from, end = from + Solution.words(length); i < end; i++) {
+            long x = bits[i];
+            if (open > 0) {
+                int ones = Long.numberOfTrailingZeros(~x);
+                open += ones;
+                if (ones == 64) continue;
+                out[at + n++] = open;
+                open = 0;
+                x &= -1L << ones;
+            }
+            while (x != 0) {
+                int start = Long.numberOfTrailingZeros(x);
+                int stop = Long.numberOfTrailingZeros(~(x | (x - 1)));
+                if (stop == 64) {
+                    open = 64 - start;
+                    break;
+                }
+                out[at + n++] = stop - start;
+                x &= -1L << stop;
             }
-            columns.add(column);
         }
+        if (open > 0) out[at + n++] = open;
+        return n;
+    }
 
-        return new Crossword(rows, columns);
+    private static boolean parallel(int h, int w) {
+        return (long) h * w >= PARALLEL_CELLS;
     }
 
-    private static void validateRect(boolean[][] filled) {
-        if (filled == null || filled.length == 0)
-            throw new IllegalArgumentException("Grid must be non-empty");
-        int w = filled[0].length;
-        if (w == 0)
-            throw new IllegalArgumentException("Grid width must be > 0");
-        for (int r = 1; r < filled.length; r++) {
-            if (filled[r] == null || filled[r].length != w)
-                throw new IllegalArgumentException("Grid must be rectangular");
+    private static IntStream range(int n, boolean parallel) {
+        IntStream s = IntStream.range(0, n);
+        return parallel ? s.parallel() : s;
+    }
+
+    /** Упакованные строки для {@link #fromRows}: своя упаковка или слова {@link Solution}. */
+    private interface Rows {
+        long word(int r, int i);
+
+        void copyRow(int r, long[] dst);
+    }
+
+    private record PackedRows(long[] bits, int rowWords) implements Rows {
+        @Override
+        public long word(int r, int i) {
+            return bits[r * rowWords + i];
+        }
+
+        @Override
+        public void copyRow(int r, long[] dst) {
+            System.arraycopy(bits, r * rowWords, dst, 0, rowWords);
+        }
+    }
+
+    private record SolutionRows(Solution solution) implements Rows {
+        @Override
+        public long word(int r, int i) {
+            return solution.rowWord(r, i);
+        }
+
+        @Override
+        public void copyRow(int r, long[] dst) {
+            solution.copyRow(r, dst, 0);
+        }
+    }
+
+    /** Блоки столбцов, пока идут строки: на столбец свой растущий {@code int[]}. */
+    private static final class ColumnRuns {
+        private static final int[] EMPTY = new int[0];
+
+        private final int[][] runs;
+        private final int[] counts;
+
+        ColumnRuns(int width) {
+            runs = new int[width][];
+            counts = new int[width];
+            Arrays.fill(runs, EMPTY);
+        }
+
+        void add(int column, int length) {
+            int[] a = runs[column];
+            int n = counts[column];
+            if (n == a.length) runs[column] = a = Arrays.copyOf(a, Math.max(4, n * 2));
+            a[n] = length;
+            counts[column] = n + 1;
+        }
+
+        /** Отдаёт столбцы по порядку, отпуская память каждого сразу после записи. */
+        void drainTo(ClueSink out) {
+            for (int c = 0; c < runs.length; c++) {
+                out.column(runs[c], 0, counts[c]);
+                runs[c] = null;
+            }
         }
     }
 }
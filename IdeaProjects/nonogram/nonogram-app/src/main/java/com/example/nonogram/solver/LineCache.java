@@ -0,0 +1,207 @@
+package com.example.nonogram.solver;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Общий для всех решений кэш результатов {@link LineSolver}: ключ — подсказка линии и её
+ * текущее состояние (упакованные FILLED/BLANK), значение — состояние после решения или
+ * отметка о противоречии. Одни и те же пары встречаются и между проходами одного пазла,
+ * и между запросами на одни и те же пазлы.
+ * <p>
+ * Кэш разбит на сегменты с LRU-вытеснением ({@link LinkedHashMap} в порядке доступа),
+ * каждый под своим монитором, так что параллельные решения редко ждут друг друга. Размер
+ * ограничен оценкой занятой памяти: при превышении доли лимита сегмент выбрасывает самые
+ * давние записи.
+ */
+public final class LineCache {
+
+    static final int MISS = 0;
+    static final int SOLVED = 1;
+    static final int CONTRADICTION = 2;
+
+    private static final int SEGMENTS = 16;
+    // запись LinkedHashMap + объект ключа + заголовки двух массивов
+    private static final long ENTRY_OVERHEAD = 96;
+    private static final long[] CONTRADICTION_VALUE = new long[0];
+
+    private final long maxBytes;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /** @param maxBytes примерный предел памяти под записи, больше нуля */
+    public LineCache(long maxBytes) {
+        if (maxBytes <= 0) throw new IllegalArgumentException("maxBytes must be > 0, got " + maxBytes);
+        this.maxBytes = maxBytes;
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment(Math.max(1, maxBytes / SEGMENTS));
+    }
+
+    /**
+     * Ищет результат для линии, описанной {@code key}. При попадании {@link #SOLVED}
+     * перезаписывает {@code filled}/{@code blank} решённым состоянием.
+     *
+     * @return {@link #MISS}, {@link #SOLVED} или {@link #CONTRADICTION}
+     */
+    int lookup(Key key, long[] filled, long[] blank) {
+        long[] value = segmentFor(key).get(key);
+        if (value == null) {
+            misses.increment();
+            return MISS;
+        }
+        hits.increment();
+        if (value == CONTRADICTION_VALUE) return CONTRADICTION;
+        int words = value.length / 2;
+        System.arraycopy(value, 0, filled, 0, words);
+        System.arraycopy(value, words, blank, 0, words);
+        return SOLVED;
+    }
+
+    /** Запоминает результат; {@code key} копируется, его можно дальше переиспользовать. */
+    void put(Key key, long[] filled, long[] blank, boolean solved) {
+        long[] value = CONTRADICTION_VALUE;
+        if (solved) {
+            int words = key.words;
+            value = new long[words * 2];
+            System.arraycopy(filled, 0, value, 0, words);
+            System.arraycopy(blank, 0, value, words, words);
+        }
+        segmentFor(key).put(key.copy(), value);
+    }
+
+    private Segment segmentFor(Key key) {
+        int h = key.hash;
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getEntries() {
+        long n = 0;
+        for (Segment s : segments) n += s.entries();
+        return n;
+    }
+
+    /** Оценка памяти, занятой записями сейчас. */
+    public long getBytes() {
+        long n = 0;
+        for (Segment s : segments) n += s.bytes();
+        return n;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "LineCache{hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions()
+                + ", entries=" + getEntries() + ", bytes=" + getBytes() + "/" + maxBytes + "}";
+    }
+
+    private final class Segment {
+        private final long capacity;
+        private final LinkedHashMap<Key, long[]> map = new LinkedHashMap<>(64, 0.75f, true);
+        private long bytes;
+
+        Segment(long capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized long[] get(Key key) {
+            return map.get(key);
+        }
+
+        synchronized void put(Key key, long[] value) {
+            long[] old = map.put(key, value);
+            if (old != null) bytes -= sizeOf(key, old);
+            bytes += sizeOf(key, value);
+            Iterator<Map.Entry<Key, long[]>> it = map.entrySet().iterator();
+            while (bytes > capacity && it.hasNext()) {
+                Map.Entry<Key, long[]> eldest = it.next();
+                bytes -= sizeOf(eldest.getKey(), eldest.getValue());
+                it.remove();
+                evictions.increment();
+            }
+        }
+
+        synchronized long entries() {
+            return map.size();
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+
+        private long sizeOf(Key key, long[] value) {
+            return ENTRY_OVERHEAD + 8L * (key.size + value.length);
+        }
+    }
+
+    /**
+     * Компактный ключ: одно слово с длиной линии и числом блоков, блоки по два в слове,
+     * затем слова FILLED и BLANK. Изменяемый, чтобы поиск шёл без аллокаций: у каждого
+     * решателя линий свой экземпляр, в кэш кладётся копия.
+     */
+    static final class Key {
+        private long[] data = new long[8];
+        private int size;
+        private int words;
+        private int hash;
+
+        void set(int[] clues, long[] filled, long[] blank, int length) {
+            int k = clues.length;
+            words = BitGrid.words(length);
+            size = 1 + (k + 1) / 2 + 2 * words;
+            if (data.length < size) data = new long[size];
+
+            int i = 0;
+            data[i++] = ((long) length << 32) | k;
+            for (int j = 0; j < k; j += 2) {
+                long hi = j + 1 < k ? clues[j + 1] : 0;
+                data[i++] = (hi << 32) | (clues[j] & 0xFFFF_FFFFL);
+            }
+            System.arraycopy(filled, 0, data, i, words);
+            System.arraycopy(blank, 0, data, i + words, words);
+
+            long h = 0;
+            for (int j = 0; j < size; j++) h = (h + data[j]) * 0x9E37_79B9_7F4A_7C15L;
+            hash = (int) (h ^ (h >>> 32));
+        }
+
+        Key copy() {
+            Key k = new Key();
+            k.data = Arrays.copyOf(data, size);
+            k.size = size;
+            k.words = words;
+            k.hash = hash;
+            return k;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && other.hash == hash
+                    && Arrays.equals(data, 0, size, other.data, 0, other.size);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
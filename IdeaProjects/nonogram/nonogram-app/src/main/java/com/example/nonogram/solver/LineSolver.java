@@ -0,0 +1,198 @@
+package com.example.nonogram.solver;
+
+/**
+ * Решатель одной линии за O(длина × число блоков) вместо перебора всех вариантов.
+ * <p>
+ * Считаем две таблицы достижимости: {@code fwd[j][i]} — первые {@code j} блоков можно
+ * разместить в клетках {@code [0, i)}, и {@code bwd[j][i]} — блоки {@code j..k-1} помещаются
+ * в {@code [i, n)}. Клетка может быть пустой, если её обходит хотя бы одна согласованная
+ * раскладка, и закрашенной, если её накрывает допустимое положение какого-то блока.
+ * Если возможно только одно — клетка вынуждена. Результат совпадает с пересечением всех
+ * вариантов, но сами варианты не строятся.
+ * <p>
+ * Экземпляр держит рабочие буферы и переиспользует их между вызовами, поэтому он
+ * не потокобезопасен — у каждого {@link SolveContext} свой.
+ */
+final class LineSolver {
+
+    static final byte UNKNOWN = 0;
+    static final byte FILLED = 1;
+    static final byte BLANK = 2;
+
+    private boolean[] fwd = new boolean[0];
+    private boolean[] bwd = new boolean[0];
+    private int[] blanksBefore = new int[0];   // кол-во BLANK в [0, i)
+    private int[] filledBefore = new int[0];   // кол-во FILLED в [0, i)
+    private int[] cover = new int[0];          // разностный массив покрытия блоками
+    private long[] canBlank = new long[0];     // битсет: клетка может быть пустой
+    private long[] canFill = new long[0];      // битсет: клетку может накрыть блок
+    private long[] packedFilled = new long[0]; // для byte[]-варианта solve
+    private long[] packedBlank = new long[0];
+
+    /**
+     * Уточняет упакованную линию на месте: вынужденные клетки добавляются в битсеты.
+     *
+     * @param clues  длины блоков (без нулей)
+     * @param filled битсет известных FILLED, {@code BitGrid.words(length)} слов
+     * @param blank  битсет известных BLANK
+     * @param length длина линии
+     * @return {@code false}, если линия противоречива; тогда битсеты не меняются
+     */
+    boolean solve(int[] clues, long[] filled, long[] blank, int length) {
+        int n = length;
+        int k = clues.length;
+        int stride = n + 1;
+        int words = BitGrid.words(n);
+        ensureCapacity(n, k);
+
+        blanksBefore[0] = 0;
+        filledBefore[0] = 0;
+        for (int i = 0; i < n; i++) {
+            blanksBefore[i + 1] = blanksBefore[i] + (int) ((blank[i >>> 6] >>> i) & 1L);
+            filledBefore[i + 1] = filledBefore[i] + (int) ((filled[i >>> 6] >>> i) & 1L);
+        }
+
+        // ---- вперёд: fwd[j][i] ----
+        for (int i = 0; i <= n; i++) {
+            fwd[i] = filledBefore[i] == 0;
+        }
+        for (int j = 1; j <= k; j++) {
+            int len = clues[j - 1];
+            int row = j * stride;
+            int prev = (j - 1) * stride;
+            fwd[row] = false;
+            for (int i = 1; i <= n; i++) {
+                boolean ok = !isFilled(i - 1) && fwd[row + i - 1];
+                if (!ok) {
+                    int s = i - len;
+                    if (s >= 0 && noBlank(s, i)) {
+                        if (j == 1) ok = fwd[prev + s];
+                        else ok = s >= 1 && !isFilled(s - 1) && fwd[prev + s - 1];
+                    }
+                }
+                fwd[row + i] = ok;
+            }
+        }
+        if (!fwd[k * stride + n]) return false;
+
+        // ---- назад: bwd[j][i] ----
+        int last = k * stride;
+        for (int i = n; i >= 0; i--) {
+            bwd[last + i] = filledBefore[n] - filledBefore[i] == 0;
+        }
+        for (int j = k - 1; j >= 0; j--) {
+            int len = clues[j];
+            int row = j * stride;
+            int next = (j + 1) * stride;
+            bwd[row + n] = false;
+            for (int i = n - 1; i >= 0; i--) {
+                boolean ok = !isFilled(i) && bwd[row + i + 1];
+                if (!ok) {
+                    int e = i + len;
+                    if (e <= n && noBlank(i, e)) {
+                        if (j == k - 1) ok = bwd[next + e];
+                        else ok = e < n && !isFilled(e) && bwd[next + e + 1];
+                    }
+                }
+                bwd[row + i] = ok;
+            }
+        }
+
+        // ---- какие значения допустимы для каждой клетки ----
+        for (int w = 0; w < words; w++) {
+            canBlank[w] = 0;
+            canFill[w] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            if (isFilled(i)) continue;
+            for (int j = 0; j <= k; j++) {
+                if (fwd[j * stride + i] && bwd[j * stride + i + 1]) {
+                    canBlank[i >>> 6] |= 1L << i;
+                    break;
+                }
+            }
+        }
+        for (int i = 0; i <= n; i++) cover[i] = 0;
+        for (int j = 0; j < k; j++) {
+            int len = clues[j];
+            for (int s = 0; s + len <= n; s++) {
+                int e = s + len;
+                if (!noBlank(s, e)) continue;
+                boolean left = j == 0
+                        ? fwd[s]
+                        : s >= 1 && !isFilled(s - 1) && fwd[j * stride + s - 1];
+                if (!left) continue;
+                boolean right = j == k - 1
+                        ? bwd[k * stride + e]
+                        : e < n && !isFilled(e) && bwd[(j + 1) * stride + e + 1];
+                if (!right) continue;
+                cover[s]++;
+                cover[e]--;
+            }
+        }
+        int covered = 0;
+        for (int i = 0; i < n; i++) {
+            covered += cover[i];
+            if (covered > 0) canFill[i >>> 6] |= 1L << i;
+        }
+
+        // ---- консенсус словами: возможно только одно значение — клетка вынуждена ----
+        for (int w = 0; w < words; w++) {
+            filled[w] |= canFill[w] & ~canBlank[w];
+            blank[w] |= canBlank[w] & ~canFill[w];
+        }
+        return true;
+    }
+
+    /**
+     * То же для линии в байтах (0=UNKNOWN, 1=FILLED, 2=BLANK) — удобно в тестах
+     * и для сравнения с перебором.
+     */
+    boolean solve(int[] clues, byte[] line, int length) {
+        int words = BitGrid.words(length);
+        if (packedFilled.length < words) {
+            packedFilled = new long[words];
+            packedBlank = new long[words];
+        }
+        for (int w = 0; w < words; w++) {
+            packedFilled[w] = 0;
+            packedBlank[w] = 0;
+        }
+        for (int i = 0; i < length; i++) {
+            if (line[i] == FILLED) packedFilled[i >>> 6] |= 1L << i;
+            else if (line[i] == BLANK) packedBlank[i >>> 6] |= 1L << i;
+        }
+        if (!solve(clues, packedFilled, packedBlank, length)) return false;
+        for (int i = 0; i < length; i++) {
+            if ((packedFilled[i >>> 6] & (1L << i)) != 0) line[i] = FILLED;
+            else if ((packedBlank[i >>> 6] & (1L << i)) != 0) line[i] = BLANK;
+        }
+        return true;
+    }
+
+    private boolean isFilled(int i) {
+        return filledBefore[i + 1] != filledBefore[i];
+    }
+
+    private boolean noBlank(int from, int to) {
+        return blanksBefore[to] - blanksBefore[from] == 0;
+    }
+
+    private void ensureCapacity(int n, int k) {
+        int table = (k + 1) * (n + 1);
+        if (fwd.length < table) {
+            fwd = new boolean[table];
+            bwd = new boolean[table];
+        }
+        if (blanksBefore.length < n + 1) {
+            blanksBefore = new int[n + 1];
+            filledBefore = new int[n + 1];
+            cover = new int[n + 1];
+        }
+        int words = BitGrid.words(n);
+        if (canBlank.length < words) {
+            canBlank = new long[words];
+            canFill = new long[words];
+        }
+    }
+}
@@ -0,0 +1,694 @@
+package com.example.nonogram.solver;
+
+import com.example.nonogram.core.SolveLimits;
+import com.example.nonogram.core.SolveListener;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.SolveAllResult;
+import com.example.nonogram.core.model.SolveResult;
+import com.example.nonogram.core.model.SolveStatus;
+import com.example.nonogram.core.model.Solution;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Состояние одного вызова {@link JPNSolver#solve(Crossword)}.
+ * Создаётся заново на каждый solve, поэтому сам {@link JPNSolver} остаётся без состояния
+ * и может обслуживать параллельные запросы.
+ * <p>
+ * Пропагация событийная: линии нумеруются подряд (строки {@code [0, height)}, колонки
+ * {@code [height, height + width)}), и в очередь попадает только та линия, в которой
+ * поменялась хоть одна клетка. Решение линии заканчивается, когда очередь пуста.
+ * <p>
+ * Если передан {@link ForkJoinPool}, очередь разбирается «волнами»: сначала все грязные
+ * строки решаются параллельно против одного и того же состояния колонок, найденные клетки
+ * сливаются в сетку, затем так же колонки. Точка неподвижности у пропагации одна, поэтому
+ * результат совпадает с последовательным режимом.
+ * <p>
+ * Ограничения ({@link SolveLimits}) проверяются кооперативно: раз в {@link #CHECK_INTERVAL}
+ * решённых линий и на каждом узле поиска. Сработавшее ограничение запоминается в
+ * {@link #stopped}, и все циклы сворачиваются, откатив догадки поиска.
+ * <p>
+ * {@link SolveListener}, если есть, получает новые клетки из трейла в тех же точках
+ * проверки — но только пока в трейле нет догадок (ни пробы, ни ветвления поиска).
+ */
+final class SolveContext {
+
+    /** Через сколько решённых линий снова смотреть на часы и флаг отмены. */
+    private static final int CHECK_INTERVAL = 64;
+
+    // ---- Данные кроссворда ----
+    private final Crossword crossword;
+    private final int height;
+    private final int width;
+    private final int[][] rowClues;                    // подсказки без боксинга, нули отброшены
+    private final int[][] colClues;
+
+    // ---- Состояние решения ----
+    private final BitGrid grid;                        // упакованные FILLED/BLANK, строки + колонки
+    private int unknown;                               // сколько клеток ещё UNKNOWN
+    private final int[] lineUnknown;                   // то же по каждой линии
+
+    // ---- Трейл и стек решений поиска ----
+    private int[] trail = new int[256];                // клетки (r * width + c) в порядке установки
+    private int trailSize;
+    private int[] decisionCell = new int[64];
+    private int[] decisionMark = new int[64];          // размер трейла до догадки
+    private int[] decisionTried = new int[64];         // сколько значений уже пробовали: 0..2
+
+    // ---- Пробинг ----
+    private long probesLeft;                           // бюджет проб на всё решение
+    private byte[] probeValue;                         // значение клетки после пробы FILLED; лениво
+    private int[] probeCells = new int[64];            // какие клетки выставила проба FILLED
+    private int[] probeAgreed = new int[64];           // где обе пробы сошлись
+
+    // ---- Очередь «грязных» линий ----
+    // Элемент очереди: (приоритет << 32) | линия. Дубликаты допустимы — устаревшие записи
+    // отбрасываются по флагу queued.
+    private final LongHeap queue = new LongHeap();
+    private final boolean[] queued;
+    private final int[] pending;                       // клеток изменилось с прошлого решения линии
+    private final int[] tightness;                     // 0..8: насколько подсказка «заполняет» линию
+
+    // ---- Рабочие поля ----
+    private final LineSolver lineSolver = new LineSolver();
+    private final long[] lineFilled;                   // слепок линии словами
+    private final long[] lineBlank;
+    private final long[] wasFilled;                    // до решения линии — для XOR-разницы
+    private final long[] wasBlank;
+    private final SolveStats stats;
+    private final ForkJoinPool pool;                   // null — последовательный режим
+    private final LineCache cache;                     // null — без кэша линий
+    private final LineCache.Key cacheKey = new LineCache.Key();
+
+    // ---- Волны (только при pool != null) ----
+    private int[] sweepLines;                          // грязные линии текущей волны
+    private int sweepCount;
+    private long[] sweepFilled;                        // результат линии line — слова с line * words
+    private long[] sweepBlank;
+    private boolean[] sweepSolved;
+    private final AtomicInteger sweepCursor = new AtomicInteger();
+    private SweepWorker[] sweepWorkers;                // по одному на поток пула, переиспользуются
+    private RecursiveAction sweepAll;                  // запускает всех sweepWorkers разом
+
+    // ---- Ограничения ----
+    private final SolveLimits limits;
+    private final long deadline;                       // System.nanoTime(); Long.MAX_VALUE — нет
+    private long nodesLeft;
+    private int checkCountdown = CHECK_INTERVAL;
+    private SolveStatus stopped;                       // TIMEOUT / PARTIAL, если ограничение сработало
+
+    // ---- Ход решения ----
+    private final SolveListener listener;              // null — никто не слушает
+    private int reported;                              // столько клеток трейла уже отдано слушателю
+    private long lastReport;
+    private boolean probing;                           // в трейле пробное значение
+    private boolean guessing;                          // в трейле догадки поиска
+
+    SolveContext(Crossword crossword, SolveStats stats, ForkJoinPool pool, long probeBudget, LineCache cache,
+                 SolveLimits limits, SolveListener listener) {
+        this.crossword = crossword;
+        this.stats = stats;
+        this.pool = pool;
+        this.cache = cache;
+        this.limits = limits;
+        this.listener = listener;
+        this.lastReport = System.nanoTime();
+        this.deadline = limits.timeoutMillis() > 0
+                ? System.nanoTime() + limits.timeoutMillis() * 1_000_000
+                : Long.MAX_VALUE;
+        this.nodesLeft = limits.maxNodes() > 0 ? limits.maxNodes() : Long.MAX_VALUE;
+        this.probesLeft = probeBudget;
+        height = crossword.height();
+        width = crossword.width();
+        rowClues = new int[height][];
+        colClues = new int[width][];
+        for (int r = 0; r < height; r++) rowClues[r] = positive(crossword.rowClues(r));
+        for (int c = 0; c < width; c++) colClues[c] = positive(crossword.columnClues(c));
+
+        int words = BitGrid.words(Math.max(height, width));
+        lineFilled = new long[words];
+        lineBlank = new long[words];
+        wasFilled = new long[words];
+        wasBlank = new long[words];
+        queued = new boolean[height + width];
+        pending = new int[height + width];
+        tightness = new int[height + width];
+        for (int line = 0; line < height + width; line++) {
+            int[] clues = cluesOf(line);
+            int used = clues.length == 0 ? 0 : clues.length - 1;
+            for (int c : clues) used += c;
+            tightness[line] = Math.max(0, used * 8 / lengthOf(line));
+        }
+
+        grid = new BitGrid(height, width);
+        unknown = height * width;
+        lineUnknown = new int[height + width];
+        for (int line = 0; line < height + width; line++) lineUnknown[line] = lengthOf(line);
+    }
+
+    /**
+     * Решает с учётом ограничений. Если ограничение сработало, в сетке остаются только
+     * клетки, выведенные без догадок. Для UNSAT сетка — то, что пропагация успела вывести
+     * до противоречия.
+     */
+    SolveResult solve() {
+        for (int line = 0; line < height + width; line++) enqueue(line);
+        boolean consistent = propagate();
+        reportProgress();
+        if (consistent && unknown > 0 && stopped == null) consistent = search(null, 1);
+
+        Solution solution = Solution.ofRowBits(crossword, grid.copyFilledRows());
+        if (stopped != null) return SolveResult.of(stopped, solution, knownMask());
+        if (!consistent) return SolveResult.of(SolveStatus.UNSAT, solution, knownMask());
+        return SolveResult.solved(solution);
+    }
+
+    /**
+     * Перечисляет решения тем же поиском: найдя полную сетку, записывает её и откатывается,
+     * как после противоречия, — пропагация и пробинг работают в каждой ветке, сетки целиком
+     * не перебираются.
+     *
+     * Сработавшее ограничение ({@link #stopped}) становится статусом результата: найденное
+     * к этому моменту отдаётся, но перечисление не полное.
+     *
+     * @return от 0 до {@code maxSolutions} различных решений
+     */
+    SolveAllResult solveAll(int maxSolutions) {
+        List<Solution> found = new ArrayList<>();
+        for (int line = 0; line < height + width; line++) enqueue(line);
+        if (propagate()) search(found, maxSolutions);
+
+        if (stopped != null && found.size() < maxSolutions) return new SolveAllResult(stopped, found);
+        return new SolveAllResult(found.isEmpty() ? SolveStatus.UNSAT : SolveStatus.SOLVED, found);
+    }
+
+    /** Подсказки линии без нулей: {@code [0]} и {@code []} для решателя одно и то же. */
+    private static int[] positive(IntBuffer line) {
+        int[] out = new int[line.remaining()];
+        int n = 0;
+        while (line.hasRemaining()) {
+            int v = line.get();
+            if (v > 0) out[n++] = v;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private boolean[][] knownMask() {
+        boolean[][] out = new boolean[height][width];
+        for (int r = 0; r < height; r++)
+            for (int c = 0; c < width; c++)
+                out[r][c] = grid.get(r, c) != LineSolver.UNKNOWN;
+        return out;
+    }
+
+    // ---- Пропагация ----
+
+    /** Решает линии из очереди, пока она не опустеет. {@code false} — найдено противоречие. */
+    private boolean propagate() {
+        if (pool != null) return propagateInSweeps();
+        while (!queue.isEmpty()) {
+            if (--checkCountdown <= 0) {
+                reportProgress();
+                if (limitReached()) {
+                    clearQueue();
+                    return false;
+                }
+            }
+            int line = (int) (queue.poll() & 0xFFFF_FFFFL);
+            if (!queued[line]) continue;       // устаревшая запись
+            queued[line] = false;
+            pending[line] = 0;
+            if (!solveLine(line)) {
+                clearQueue();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean propagateInSweeps() {
+        while (!queue.isEmpty()) {
+            reportProgress();
+            if (limitReached()) {
+                clearQueue();
+                return false;
+            }
+            queue.clear();                     // в этом режиме порядок задают флаги queued
+            if (!sweep(0, height) || !sweep(height, height + width)) {
+                clearQueue();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Параллельно решает все грязные линии из {@code [from, to)} и сливает результат в сетку.
+     * Буферы и задачи волны создаются один раз на решение и дальше только переиспользуются.
+     */
+    private boolean sweep(int from, int to) {
+        if (sweepWorkers == null) initSweep();
+        int count = 0;
+        for (int line = from; line < to; line++) {
+            if (!queued[line]) continue;
+            queued[line] = false;
+            pending[line] = 0;
+            sweepLines[count++] = line;
+        }
+        if (count == 0) return true;
+
+        sweepCount = count;
+        sweepCursor.set(0);
+        for (SweepWorker w : sweepWorkers) w.reinitialize();
+        sweepAll.reinitialize();
+        pool.invoke(sweepAll);
+
+        int words = lineFilled.length;
+        for (int i = 0; i < count; i++) {
+            int line = sweepLines[i];
+            stats.lineProcessed();
+            if (!sweepSolved[line]) return false;
+            System.arraycopy(sweepFilled, line * words, lineFilled, 0, words);
+            System.arraycopy(sweepBlank, line * words, lineBlank, 0, words);
+            applyLine(line, lineFilled, lineBlank);
+        }
+        return true;
+    }
+
+    private void initSweep() {
+        int lines = height + width;
+        int words = lineFilled.length;
+        sweepLines = new int[lines];
+        sweepFilled = new long[lines * words];
+        sweepBlank = new long[lines * words];
+        sweepSolved = new boolean[lines];
+        sweepWorkers = new SweepWorker[Math.max(1, pool.getParallelism())];
+        for (int i = 0; i < sweepWorkers.length; i++) sweepWorkers[i] = new SweepWorker();
+        sweepAll = new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(sweepWorkers);
+            }
+        };
+    }
+
+    /**
+     * Поток волны: забирает линии порциями по {@link #CHUNK} из общего курсора. Рабочие
+     * массивы у каждого свои; пока волна идёт, сетка только читается.
+     */
+    private final class SweepWorker extends RecursiveAction {
+        private static final int CHUNK = 8;
+
+        private final LineSolver solver = new LineSolver();
+        private final LineCache.Key key = cache != null ? new LineCache.Key() : null;
+        private final long[] filled = new long[lineFilled.length];
+        private final long[] blank = new long[lineFilled.length];
+
+        @Override
+        protected void compute() {
+            int words = filled.length;
+            for (int start; (start = sweepCursor.getAndAdd(CHUNK)) < sweepCount; ) {
+                for (int i = start, end = Math.min(start + CHUNK, sweepCount); i < end; i++) {
+                    int line = sweepLines[i];
+                    readLine(line, filled, blank);
+                    boolean solved = solveCached(solver, key, line, filled, blank);
+                    sweepSolved[line] = solved;
+                    if (!solved) continue;
+                    System.arraycopy(filled, 0, sweepFilled, line * words, words);
+                    System.arraycopy(blank, 0, sweepBlank, line * words, words);
+                }
+            }
+        }
+    }
+
+    /**
+     * Проверяет дедлайн, флаг отмены и прерывание потока; сработавшее ограничение
+     * запоминается в {@link #stopped}. Дальше {@code false} от пропагации значит
+     * «остановлены», а не «противоречие».
+     */
+    private boolean limitReached() {
+        checkCountdown = CHECK_INTERVAL;
+        if (stopped != null) return true;
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) stopped = SolveStatus.TIMEOUT;
+        else if (limits.isCancelled() || Thread.currentThread().isInterrupted()) stopped = SolveStatus.PARTIAL;
+        return stopped != null;
+    }
+
+    /** Отдаёт слушателю доказанные клетки, появившиеся в трейле с прошлого раза (с троттлингом). */
+    private void reportProgress() {
+        if (listener == null || probing || guessing || reported == trailSize) return;
+        long now = System.nanoTime();
+        if (now - lastReport < listener.intervalNanos()) return;
+        lastReport = now;
+
+        int filledCount = 0;
+        for (int i = reported; i < trailSize; i++) {
+            int cell = trail[i];
+            if (grid.isFilled(cell / width, cell % width)) filledCount++;
+        }
+        int[] filled = new int[filledCount];
+        int[] blank = new int[trailSize - reported - filledCount];
+        for (int i = reported, f = 0, b = 0; i < trailSize; i++) {
+            int cell = trail[i];
+            if (grid.isFilled(cell / width, cell % width)) filled[f++] = cell;
+            else blank[b++] = cell;
+        }
+        reported = trailSize;
+        listener.cellsResolved(filled, blank, height * width - unknown);
+    }
+
+    private void enqueue(int line) {
+        queued[line] = true;
+        long priority = pending[line] + tightness[line];
+        queue.add((priority << 32) | line);
+    }
+
+    private void clearQueue() {
+        queue.clear();
+        Arrays.fill(queued, false);
+        Arrays.fill(pending, 0);
+    }
+
+    // ---- Решение одной линии ----
+    // Раньше здесь перебирались все варианты раскладки (solver/consensusAt) плюс findBlack
+    // и краевые эвристики; LineSolver находит те же вынужденные клетки за O(n*k).
+    private boolean solveLine(int line) {
+        stats.lineProcessed();
+        readLine(line, lineFilled, lineBlank);
+        if (!solveCached(lineSolver, cacheKey, line, lineFilled, lineBlank)) return false;
+        applyLine(line, lineFilled, lineBlank);
+        return true;
+    }
+
+    /** {@link LineSolver#solve} через общий {@link LineCache}, если он есть. */
+    private boolean solveCached(LineSolver solver, LineCache.Key key, int line, long[] filled, long[] blank) {
+        int[] clues = cluesOf(line);
+        int length = lengthOf(line);
+        if (cache == null) return solver.solve(clues, filled, blank, length);
+
+        key.set(clues, filled, blank, length);
+        int cached = cache.lookup(key, filled, blank);
+        if (cached != LineCache.MISS) return cached == LineCache.SOLVED;
+        boolean solved = solver.solve(clues, filled, blank, length);
+        cache.put(key, filled, blank, solved);
+        return solved;
+    }
+
+    private void readLine(int line, long[] filled, long[] blank) {
+        if (line < height) grid.readRow(line, filled, blank);
+        else grid.readColumn(line - height, filled, blank);
+    }
+
+    /** Переносит в сетку клетки, которые решение линии добавило к её текущему состоянию. */
+    private void applyLine(int line, long[] filled, long[] blank) {
+        readLine(line, wasFilled, wasBlank);
+        int words = BitGrid.words(lengthOf(line));
+        // новые клетки = (стало XOR было) по каждому битсету
+        for (int w = 0; w < words; w++) {
+            long changed = (filled[w] ^ wasFilled[w]) | (blank[w] ^ wasBlank[w]);
+            while (changed != 0) {
+                int bit = Long.numberOfTrailingZeros(changed);
+                int i = (w << 6) + bit;
+                byte code = (filled[w] & (1L << bit)) != 0 ? LineSolver.FILLED : LineSolver.BLANK;
+                if (line < height) setCell(line, i, code, line);
+                else setCell(i, line - height, code, line);
+                changed &= changed - 1;
+            }
+        }
+    }
+
+    /**
+     * Ставит значение в UNKNOWN-клетку, пишет её в трейл и ставит в очередь её строку
+     * и колонку (кроме {@code source}).
+     */
+    private void setCell(int r, int c, byte code, int source) {
+        grid.set(r, c, code);
+        unknown--;
+        lineUnknown[r]--;
+        lineUnknown[height + c]--;
+        if (trailSize == trail.length) trail = Arrays.copyOf(trail, trailSize * 2);
+        trail[trailSize++] = r * width + c;
+        if (r != source) touch(r);
+        if (height + c != source) touch(height + c);
+    }
+
+    private void touch(int line) {
+        pending[line]++;
+        enqueue(line);
+    }
+
+    private int[] cluesOf(int line) {
+        return line < height ? rowClues[line] : colClues[line - height];
+    }
+
+    private int lengthOf(int line) {
+        return line < height ? width : height;
+    }
+
+    // ---- Поиск: DFS с пропагацией в каждом узле ----
+
+    /**
+     * Поиск в глубину без рекурсии. Перед каждым ветвлением — пробинг ({@link #probe()}),
+     * затем ветвимся по самой «зажатой» клетке, пробуем FILLED, затем BLANK, и после
+     * каждой догадки гоняем пропагацию до конца. Откат — по трейлу до метки узла,
+     * без копирования сетки.
+     * <p>
+     * Если передан {@code found}, каждое найденное решение добавляется туда, и поиск идёт
+     * дальше, пока их не станет {@code maxSolutions}.
+     *
+     * @param found        куда складывать решения; {@code null} — остановиться на первом
+     * @param maxSolutions сколько решений достаточно (используется только с {@code found})
+     * @return {@code true}, если найдено полное непротиворечивое решение (оно остаётся в сетке)
+     */
+    private boolean search(List<Solution> found, int maxSolutions) {
+        int depth = 0;
+        boolean consistent = probe();
+        while (true) {
+            if (stopped != null) {
+                if (depth > 0) undo(decisionMark[0]);     // догадки не доказаны — откатываем
+                guessing = false;
+                return false;
+            }
+            if (consistent && unknown == 0 && found != null) {
+                found.add(Solution.ofRowBits(crossword, grid.copyFilledRows()));
+                if (found.size() >= maxSolutions) return true;
+                consistent = false;                     // ищем следующее, как после тупика
+            }
+            if (consistent) {
+                if (unknown == 0) return true;
+
+                if (depth == decisionCell.length) {
+                    decisionCell = Arrays.copyOf(decisionCell, depth * 2);
+                    decisionMark = Arrays.copyOf(decisionMark, depth * 2);
+                    decisionTried = Arrays.copyOf(decisionTried, depth * 2);
+                }
+                decisionCell[depth] = pickBranchCell();
+                decisionMark[depth] = trailSize;
+                decisionTried[depth] = 0;
+                depth++;
+                guessing = true;
+            }
+
+            // пробуем следующее значение; если оба исчерпаны — поднимаемся выше
+            consistent = false;
+            while (!consistent) {
+                if (depth == 0) {
+                    guessing = false;
+                    return false;
+                }
+                int d = depth - 1;
+                undo(decisionMark[d]);
+                if (decisionTried[d] == 2) {
+                    depth--;
+                    continue;
+                }
+                if (nodesLeft-- <= 0) stopped = SolveStatus.PARTIAL;
+                if (stopped != null || limitReached()) break;
+                byte value = decisionTried[d]++ == 0 ? LineSolver.FILLED : LineSolver.BLANK;
+                stats.nodeVisited();
+                int cell = decisionCell[d];
+                setCell(cell / width, cell % width, value, -1);
+                consistent = propagate() && probe();
+                if (stopped != null) break;
+            }
+        }
+    }
+
+    // ---- Пробинг (failed literals) ----
+
+    /**
+     * Для каждой неизвестной клетки пробуем FILLED и BLANK с пропагацией. Если одно
+     * значение ведёт к противоречию — клетка получает другое; клетки, в которых обе пробы
+     * сошлись, фиксируются сразу. Пропагация инкрементальная: в очередь попадают только
+     * линии, задетые пробой. Проходы повторяются, пока есть прогресс и не кончился бюджет.
+     *
+     * @return {@code false}, если текущий узел противоречив или сработало ограничение
+     */
+    private boolean probe() {
+        boolean progress = true;
+        while (progress && unknown > 0 && probesLeft > 0) {
+            progress = false;
+            for (int cell = 0; cell < height * width && probesLeft > 0; cell++) {
+                int r = cell / width, c = cell % width;
+                if (grid.get(r, c) != LineSolver.UNKNOWN) continue;
+                probesLeft--;
+                stats.probeTried();
+                if (probeValue == null) probeValue = new byte[height * width];
+                int mark = trailSize;
+                probing = true;
+
+                setCell(r, c, LineSolver.FILLED, -1);
+                boolean filledOk = propagate();
+                if (stopped != null) {
+                    undo(mark);
+                    probing = false;
+                    return false;
+                }
+                int seen = 0;
+                if (filledOk) {
+                    for (int i = mark + 1; i < trailSize; i++) {
+                        int other = trail[i];
+                        probeValue[other] = grid.get(other / width, other % width);
+                        if (seen == probeCells.length) probeCells = Arrays.copyOf(probeCells, seen * 2);
+                        probeCells[seen++] = other;
+                    }
+                }
+                undo(mark);
+
+                setCell(r, c, LineSolver.BLANK, -1);
+                boolean blankOk = propagate();
+                if (stopped != null) {
+                    undo(mark);
+                    probing = false;
+                    for (int i = 0; i < seen; i++) probeValue[probeCells[i]] = LineSolver.UNKNOWN;
+                    return false;
+                }
+                int agreed = 0;
+                if (filledOk && blankOk) {
+                    for (int i = mark + 1; i < trailSize; i++) {
+                        int other = trail[i];
+                        if (probeValue[other] == grid.get(other / width, other % width)) {
+                            if (agreed == probeAgreed.length) probeAgreed = Arrays.copyOf(probeAgreed, agreed * 2);
+                            probeAgreed[agreed++] = other;
+                        }
+                    }
+                }
+                undo(mark);
+                probing = false;
+
+                if (!filledOk && !blankOk) {
+                    for (int i = 0; i < seen; i++) probeValue[probeCells[i]] = LineSolver.UNKNOWN;
+                    return false;
+                }
+                if (!filledOk || !blankOk) {
+                    setCell(r, c, filledOk ? LineSolver.FILLED : LineSolver.BLANK, -1);
+                    stats.probeFixed(1);
+                    progress = true;
+                } else if (agreed > 0) {
+                    for (int i = 0; i < agreed; i++) {
+                        int other = probeAgreed[i];
+                        setCell(other / width, other % width, probeValue[other], -1);
+                    }
+                    stats.probeFixed(agreed);
+                    progress = true;
+                }
+                for (int i = 0; i < seen; i++) probeValue[probeCells[i]] = LineSolver.UNKNOWN;
+                if (!propagate()) return false;
+                reportProgress();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Most-constrained: берём линию с наименьшим числом неизвестных клеток, а в ней —
+     * клетку, у которой и поперечная линия почти решена. Такие догадки быстрее всего
+     * приводят к противоречию или к цепочке выводов.
+     */
+    private int pickBranchCell() {
+        int bestLine = -1;
+        int min = Integer.MAX_VALUE;
+        for (int line = 0; line < height + width; line++) {
+            int u = lineUnknown[line];
+            if (u > 0 && u < min) {
+                min = u;
+                bestLine = line;
+            }
+        }
+
+        int bestCell = -1;
+        min = Integer.MAX_VALUE;
+        for (int i = 0; i < lengthOf(bestLine); i++) {
+            int r = bestLine < height ? bestLine : i;
+            int c = bestLine < height ? i : bestLine - height;
+            if (grid.get(r, c) != LineSolver.UNKNOWN) continue;
+            int cross = bestLine < height ? height + c : r;
+            if (lineUnknown[cross] < min) {
+                min = lineUnknown[cross];
+                bestCell = r * width + c;
+            }
+        }
+        return bestCell;
+    }
+
+    /** Возвращает в UNKNOWN все клетки, выставленные после метки трейла. */
+    private void undo(int mark) {
+        while (trailSize > mark) {
+            int cell = trail[--trailSize];
+            int r = cell / width, c = cell % width;
+            grid.set(r, c, LineSolver.UNKNOWN);
+            unknown++;
+            lineUnknown[r]++;
+            lineUnknown[height + c]++;
+        }
+    }
+
+    /** Max-куча на {@code long[]}: очередь линий без боксинга на каждую постановку. */
+    static final class LongHeap {
+        private long[] heap = new long[64];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void add(long v) {
+            if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] >= v) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = v;
+        }
+
+        /** Снимает наибольший элемент; куча не должна быть пустой. */
+        long poll() {
+            long top = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] > heap[child]) child++;
+                if (heap[child] <= last) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
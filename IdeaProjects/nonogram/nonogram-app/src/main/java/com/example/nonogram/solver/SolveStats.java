@@ -0,0 +1,56 @@
+package com.example.nonogram.solver;
+
+/**
+ * Счётчики одного решения — чтобы можно было измерить, сколько работы сделал движок.
+ * Передаётся в {@link JPNSolver#solve(com.example.nonogram.core.model.Crossword, SolveStats)};
+ * заполняется из одного потока, повторно между решениями не используется.
+ */
+public final class SolveStats {
+
+    private long linesProcessed;
+    private long nodes;
+    private long probes;
+    private long probeFixedCells;
+
+    /** Сколько раз линия была снята из очереди и прогнана через {@link LineSolver}. */
+    public long getLinesProcessed() {
+        return linesProcessed;
+    }
+
+    /** Сколько догадок сделал поиск (каждое пробное значение клетки — узел). */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** Сколько клеток проверено пробингом (каждая — две пробы, FILLED и BLANK). */
+    public long getProbes() {
+        return probes;
+    }
+
+    /** Сколько клеток пробинг зафиксировал без ветвления. */
+    public long getProbeFixedCells() {
+        return probeFixedCells;
+    }
+
+    void lineProcessed() {
+        linesProcessed++;
+    }
+
+    void nodeVisited() {
+        nodes++;
+    }
+
+    void probeTried() {
+        probes++;
+    }
+
+    void probeFixed(int cells) {
+        probeFixedCells += cells;
+    }
+
+    @Override
+    public String toString() {
+        return "SolveStats{linesProcessed=" + linesProcessed + ", nodes=" + nodes
+                + ", probes=" + probes + ", probeFixedCells=" + probeFixedCells + "}";
+    }
+}
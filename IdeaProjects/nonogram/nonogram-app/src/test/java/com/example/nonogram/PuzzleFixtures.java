@@ -0,0 +1,55 @@
+package com.example.nonogram;
+
+import com.example.nonogram.adapters.SaxJpnXmlReader;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.util.BuiltinPuzzles;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Общие заготовки тестов: встроенные пазлы, случайные картинки, сравнение подсказок. */
+public final class PuzzleFixtures {
+
+    private static final BuiltinPuzzles BUILTIN = new BuiltinPuzzles(new PathMatchingResourcePatternResolver());
+
+    private PuzzleFixtures() {}
+
+    /** Имена встроенных пазлов из {@code /puzzles}, без расширения, по алфавиту. */
+    public static List<String> builtinNames() throws IOException {
+        List<String> names = BUILTIN.list();
+        assertThat(names).isNotEmpty();
+        return names;
+    }
+
+    /** Файл встроенного пазла как есть. */
+    public static byte[] builtinBytes(String name) throws IOException {
+        try (InputStream in = BUILTIN.open(name)) {
+            return in.readAllBytes();
+        }
+    }
+
+    /** Встроенный пазл, прочитанный эталонным {@link SaxJpnXmlReader}. */
+    public static Crossword builtin(String name) throws IOException {
+        return new SaxJpnXmlReader().read(new ByteArrayInputStream(builtinBytes(name)));
+    }
+
+    /** Картинка {@code h × w}: каждая клетка закрашена с вероятностью {@code density}. */
+    public static boolean[][] randomPicture(Random rnd, int h, int w, double density) {
+        boolean[][] picture = new boolean[h][w];
+        for (boolean[] row : picture)
+            for (int c = 0; c < w; c++) row[c] = rnd.nextDouble() < density;
+        return picture;
+    }
+
+    /** Подсказки строк и столбцов совпадают. */
+    public static void assertSameClues(Crossword actual, Crossword expected) {
+        assertThat(actual.getRows()).isEqualTo(expected.getRows());
+        assertThat(actual.getColumns()).isEqualTo(expected.getColumns());
+    }
+}
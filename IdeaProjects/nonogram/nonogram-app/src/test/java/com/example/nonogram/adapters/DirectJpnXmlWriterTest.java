@@ -0,0 +1,75 @@
+package com.example.nonogram.adapters;
+
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.solver.JPNAntiSolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.nonogram.PuzzleFixtures.assertSameClues;
+import static com.example.nonogram.PuzzleFixtures.builtin;
+import static com.example.nonogram.PuzzleFixtures.randomPicture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Вывод этого писателя каждым читателем — в {@link JpnXmlReadersTest}; здесь — его собственные случаи. */
+class DirectJpnXmlWriterTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a-test-cross", "cat", "fregat", "key60", "kon100", "wine"})
+    void builtinPuzzlesRoundTrip(String name) throws Exception {
+        Crossword cw = builtin(name);
+
+        assertRoundTrips(cw, new DirectJpnXmlWriter(true));
+        assertRoundTrips(cw, new DirectJpnXmlWriter(false));
+    }
+
+    @Test
+    void largePuzzleWithEmptyLinesSpansManyBufferFlushes() {
+        boolean[][] picture = randomPicture(new Random(13), 300, 200, 0.75);
+        picture[0] = new boolean[200];
+        picture[299] = new boolean[200];
+        Crossword cw = new JPNAntiSolver().antiSolve(picture);
+
+        assertRoundTrips(cw, new DirectJpnXmlWriter(true));
+        assertRoundTrips(cw, new DirectJpnXmlWriter(false));
+    }
+
+    @Test
+    void indentedOutputLooksLikeTheOtherWriters() {
+        Crossword cw = new Crossword(List.of(List.of(1, 12), List.of()), List.of(List.of(1), List.of(1, 1)));
+
+        assertThat(write(cw, new DirectJpnXmlWriter(true))).isEqualTo("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <crossword>
+                  <rows>
+                    <row>1 12</row>
+                    <row/>
+                  </rows>
+                  <columns>
+                    <column>1</column>
+                    <column>1 1</column>
+                  </columns>
+                </crossword>
+                """);
+        assertThat(write(cw, new DirectJpnXmlWriter(false))).isEqualTo("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<crossword><rows><row>1 12</row><row/></rows>"
+                + "<columns><column>1</column><column>1 1</column></columns></crossword>");
+    }
+
+    private static void assertRoundTrips(Crossword cw, DirectJpnXmlWriter writer) {
+        byte[] bytes = write(cw, writer).getBytes(StandardCharsets.UTF_8);
+        assertSameClues(new StaxJpnXmlReader().read(new ByteArrayInputStream(bytes)), cw);
+    }
+
+    private static String write(Crossword cw, DirectJpnXmlWriter writer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(cw, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.nonogram.adapters;
+
+import com.example.nonogram.core.io.JpnXmlReaderException;
+import com.example.nonogram.core.model.Crossword;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Разбор байтов своими силами; общее для всех читателей — в {@link JpnXmlReadersTest}. */
+class FastJpnXmlReaderTest {
+
+    private final FastJpnXmlReader fast = new FastJpnXmlReader();
+
+    @Test
+    void acceptsDeclarationCommentsAttributesAndCdata() {
+        Crossword cw = read("\uFEFF<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!-- title -->\n"
+                + "<crossword name=\"a > b\">\n"
+                + "  <rows><row> 1  2 </row><row/><row>1<!-- split -->0</row></rows>\n"
+                + "  <columns><column><![CDATA[3]]></column><column>\t12\r\n</column></columns>\n"
+                + "</crossword>");
+
+        assertThat(cw.getRows()).containsExactly(List.of(1, 2), List.of(), List.of(10));
+        assertThat(cw.getColumns()).containsExactly(List.of(3), List.of(12));
+    }
+
+    @Test
+    void ignoresRowsOutsideTheirSection() {
+        Crossword cw = read("<crossword><rows><row>1</row><column>9</column></rows>"
+                + "<columns><column>1</column></columns><row>7</row></crossword>");
+
+        assertThat(cw.getRows()).containsExactly(List.of(1));
+        assertThat(cw.getColumns()).containsExactly(List.of(1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "<!DOCTYPE crossword [<!ENTITY x \"1\">]><crossword><rows><row>&x;</row></rows><columns><column>1</column></columns></crossword>",
+            "<crossword><rows><row>&#49;</row></rows><columns><column>1</column></columns></crossword>",
+            "<crossword><rows><row>1</row></rows><columns><column>1</column></columns></crossword><crossword/>"
+    })
+    void rejectsDoctypeReferencesAndTrailingContent(String xml) {
+        assertThatThrownBy(() -> read(xml)).isInstanceOf(JpnXmlReaderException.class);
+    }
+
+    private Crossword read(String xml) {
+        return fast.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
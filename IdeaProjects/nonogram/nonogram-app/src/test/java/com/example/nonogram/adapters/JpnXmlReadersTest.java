@@ -0,0 +1,110 @@
+package com.example.nonogram.adapters;
+
+import com.example.nonogram.adapters.reader.JacksonJpnXmlReader;
+import com.example.nonogram.core.io.JpnXmlReader;
+import com.example.nonogram.core.io.JpnXmlReaderException;
+import com.example.nonogram.core.io.JpnXmlWriter;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.solver.JPNAntiSolver;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static com.example.nonogram.PuzzleFixtures.assertSameClues;
+import static com.example.nonogram.PuzzleFixtures.builtinBytes;
+import static com.example.nonogram.PuzzleFixtures.builtinNames;
+import static com.example.nonogram.PuzzleFixtures.randomPicture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Все читатели JPNXML взаимозаменяемы: встроенные файлы и вывод каждого писателя читаются
+ * одинаково, общий набор кривого ввода отвергается. Особенности отдельных читателей — в их
+ * собственных тестах.
+ */
+class JpnXmlReadersTest {
+
+    private static final StaxJpnXmlReader REFERENCE = new StaxJpnXmlReader();
+
+    static List<Named<JpnXmlReader>> readers() {
+        return Stream.<JpnXmlReader>of(new DomJpnXmlReader(), new SaxJpnXmlReader(), new StaxJpnXmlReader(),
+                        new JacksonJpnXmlReader(), new FastJpnXmlReader())
+                .map(r -> Named.of(r.getClass().getSimpleName(), r))
+                .toList();
+    }
+
+    static Stream<Arguments> readersAndBuiltinFiles() throws IOException {
+        List<String> names = builtinNames();
+        return readers().stream().flatMap(r -> names.stream().map(n -> Arguments.of(r, n)));
+    }
+
+    static Stream<Arguments> readersAndWriters() {
+        List<Named<JpnXmlWriter>> writers = Stream.of(
+                Named.<JpnXmlWriter>of("dom", new DomJpnXmlWriter()),
+                Named.<JpnXmlWriter>of("sax", new SaxJpnXmlWriter()),
+                Named.<JpnXmlWriter>of("stax", new StaxJpnXmlWriter()),
+                Named.<JpnXmlWriter>of("direct", new DirectJpnXmlWriter(true)),
+                Named.<JpnXmlWriter>of("direct, no indent", new DirectJpnXmlWriter(false))).toList();
+        return readers().stream().flatMap(r -> writers.stream().map(w -> Arguments.of(r, w)));
+    }
+
+    static Stream<Arguments> readersAndMalformedInput() {
+        List<String> malformed = List.of(
+                "<crossword><rows><row>1 a</row></rows><columns><column>1</column></columns></crossword>",
+                "<crossword><rows><row>0</row></rows><columns><column>1</column></columns></crossword>",
+                "<crossword><rows><row>99999999999</row></rows><columns><column>1</column></columns></crossword>",
+                "<crossword><rows><row>1</rows></row><columns><column>1</column></columns></crossword>",
+                "<crossword><rows><row>1</row></rows><columns><column>1</column></columns>",
+                "<crossword><rows></rows><columns><column>1</column></columns></crossword>",
+                "<puzzle><rows><row>1</row></rows><columns><column>1</column></columns></puzzle>");
+        return readers().stream().flatMap(r -> malformed.stream().map(xml -> Arguments.of(r, xml)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("readersAndBuiltinFiles")
+    void readsBuiltinFilesLikeStax(JpnXmlReader reader, String name) throws IOException {
+        byte[] bytes = builtinBytes(name);
+
+        assertSameClues(reader.read(new ByteArrayInputStream(bytes)), REFERENCE.read(new ByteArrayInputStream(bytes)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("readersAndWriters")
+    void readsWhatEveryWriterWrites(JpnXmlReader reader, JpnXmlWriter writer) {
+        boolean[][] picture = randomPicture(new Random(3), 40, 30, 0.67);
+        picture[5] = new boolean[30];       // пустая строка → <row/>
+        Crossword cw = new JPNAntiSolver().antiSolve(picture);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(cw, out);
+
+        assertSameClues(reader.read(new ByteArrayInputStream(out.toByteArray())), cw);
+    }
+
+    @ParameterizedTest
+    @MethodSource("readersAndMalformedInput")
+    void rejectsMalformedInput(JpnXmlReader reader, String xml) {
+        assertThatThrownBy(() -> read(reader, xml)).isInstanceOf(JpnXmlReaderException.class);
+    }
+
+    @ParameterizedTest
+    @MethodSource("readers")
+    void staysUsableAfterFailedParse(JpnXmlReader reader) {
+        assertThatThrownBy(() -> read(reader, "<crossword><rows><row>1")).isInstanceOf(JpnXmlReaderException.class);
+        assertThat(read(reader, "<crossword><rows><row>1</row></rows><columns><column>1</column></columns></crossword>")
+                .getRows()).containsExactly(List.of(1));
+    }
+
+    private static Crossword read(JpnXmlReader reader, String xml) {
+        return reader.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
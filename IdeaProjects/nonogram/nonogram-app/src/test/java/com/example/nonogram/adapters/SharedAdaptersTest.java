@@ -0,0 +1,103 @@
+package com.example.nonogram.adapters;
+
+import com.example.nonogram.core.io.JpnXmlReader;
+import com.example.nonogram.core.io.JpnXmlLineWriter;
+import com.example.nonogram.core.io.JpnXmlWriter;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.solver.JPNAntiSolver;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.example.nonogram.PuzzleFixtures.assertSameClues;
+import static com.example.nonogram.PuzzleFixtures.randomPicture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Один экземпляр адаптера на всё приложение: повторные и параллельные вызовы не мешают друг другу. */
+class SharedAdaptersTest {
+
+    private static final List<JpnXmlReader> READERS =
+            List.of(new DomJpnXmlReader(), new SaxJpnXmlReader(), new StaxJpnXmlReader());
+    private static final List<JpnXmlWriter> WRITERS =
+            List.of(new DomJpnXmlWriter(), new SaxJpnXmlWriter(), new StaxJpnXmlWriter());
+
+    @Test
+    void sharedReadersAndWritersRoundTripFromManyThreads() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long seed = t;
+                tasks.add(pool.submit(() -> {
+                    Random rnd = new Random(seed);
+                    for (int i = 0; i < 30; i++) {
+                        Crossword cw = randomCrossword(rnd);
+                        JpnXmlWriter writer = WRITERS.get(rnd.nextInt(WRITERS.size()));
+                        JpnXmlReader reader = READERS.get(rnd.nextInt(READERS.size()));
+
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        writer.write(cw, out);
+
+                        assertSameClues(reader.read(new ByteArrayInputStream(out.toByteArray())), cw);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : tasks) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void lineByLineOutputMatchesWholePuzzleOutput() {
+        List<Crossword> puzzles = List.of(randomCrossword(new Random(5)),
+                new Crossword(List.of(List.of(), List.of(2)), List.of(List.of(1), List.of(1))));
+        List<JpnXmlWriter> writers = new ArrayList<>(WRITERS);
+        writers.add(new DirectJpnXmlWriter(true));
+        writers.add(new DirectJpnXmlWriter(false));
+
+        for (JpnXmlWriter writer : writers) {
+            for (Crossword cw : puzzles) {
+                ByteArrayOutputStream whole = new ByteArrayOutputStream();
+                writer.write(cw, whole);
+
+                ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+                JpnXmlLineWriter lines = writer.open(streamed);
+                for (int r = 0; r < cw.height(); r++) {
+                    int[] clues = cw.copyRowClues(r);
+                    lines.row(clues, 0, clues.length);
+                }
+                for (int c = 0; c < cw.width(); c++) {
+                    int[] clues = cw.copyColumnClues(c);
+                    lines.column(clues, 0, clues.length);
+                }
+                lines.close();
+
+                assertThat(streamed.toString(StandardCharsets.UTF_8)).as(writer.getClass().getSimpleName())
+                        .isEqualTo(whole.toString(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    void rowsAfterColumnsAreRejected() {
+        JpnXmlLineWriter lines = new DirectJpnXmlWriter().open(new ByteArrayOutputStream());
+        lines.column(new int[]{1}, 0, 1);
+
+        assertThatThrownBy(() -> lines.row(new int[]{1}, 0, 1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static Crossword randomCrossword(Random rnd) {
+        return new JPNAntiSolver().antiSolve(randomPicture(rnd, 5 + rnd.nextInt(20), 5 + rnd.nextInt(20), 0.5));
+    }
+}
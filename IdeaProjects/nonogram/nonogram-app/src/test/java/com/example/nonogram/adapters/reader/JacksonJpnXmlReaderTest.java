@@ -0,0 +1,42 @@
+package com.example.nonogram.adapters.reader;
+
+import com.example.nonogram.core.io.JpnXmlReaderException;
+import com.example.nonogram.core.model.Crossword;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Потоковый разбор на Jackson; общее для всех читателей — в {@code JpnXmlReadersTest}. */
+class JacksonJpnXmlReaderTest {
+
+    private final JacksonJpnXmlReader jackson = new JacksonJpnXmlReader();
+
+    @Test
+    void singleLineSectionsAndSkippedElements() {
+        Crossword cw = read("<crossword><title>x</title><rows><row> 2 1 </row></rows>"
+                + "<columns><note>y</note><column>2</column><column/><column>1</column></columns></crossword>");
+
+        assertThat(cw.getRows()).containsExactly(List.of(2, 1));
+        assertThat(cw.getColumns()).containsExactly(List.of(2), List.of(), List.of(1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "<!DOCTYPE crossword [<!ENTITY x \"1\">]><crossword><rows><row>&x;</row></rows><columns><column>1</column></columns></crossword>",
+            "<crossword><rows><row><b>1</b></row></rows><columns><column>1</column></columns></crossword>"
+    })
+    void rejectsDoctypeAndMarkupInsideLines(String xml) {
+        assertThatThrownBy(() -> read(xml)).isInstanceOf(JpnXmlReaderException.class);
+    }
+
+    private Crossword read(String xml) {
+        return jackson.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.nonogram.api;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BatchSolveControllerTest {
+
+    private static final String CROSS = "{\"rows\":[[1],[3],[1]],\"columns\":[[1],[3],[1]]}";
+    private static final String UNSAT = "{\"rows\":[[1]],\"columns\":[[0]]}";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void everyLineGetsItsOwnResultAndErrorsDoNotAbortTheBatch() throws Exception {
+        List<String> lines = batch(CROSS + "\n{not json\n\n" + UNSAT + "\n" + "{\"rows\":[],\"columns\":[[1]]}\n");
+
+        assertThat(lines).hasSize(4);
+        assertThat(lines.stream().map(l -> JsonPath.<Integer>read(l, "$.index")))
+                .containsExactly(0, 1, 2, 3);
+        assertThat(JsonPath.<String>read(lines.get(0), "$.result.status")).isEqualTo("SOLVED");
+        assertThat(JsonPath.<Integer>read(lines.get(0), "$.result.width")).isEqualTo(3);
+        assertThat(JsonPath.<String>read(lines.get(1), "$.error")).startsWith("Invalid JSON");
+        assertThat(JsonPath.<String>read(lines.get(2), "$.result.status")).isEqualTo("UNSAT");
+        assertThat(JsonPath.<String>read(lines.get(3), "$.error")).isNotBlank();
+    }
+
+    @Test
+    void manyPuzzlesAreAllAnswered() throws Exception {
+        int n = 50;
+        List<String> lines = batch((CROSS + "\n").repeat(n));
+
+        assertThat(lines).hasSize(n);
+        assertThat(lines.stream().map(l -> JsonPath.<Integer>read(l, "$.index")).distinct()).hasSize(n);
+        assertThat(lines).allSatisfy(l -> assertThat(JsonPath.<String>read(l, "$.result.status")).isEqualTo("SOLVED"));
+    }
+
+    /** Строки ответа, отсортированные по номеру входной строки (порядок готовности не задан). */
+    private List<String> batch(String body) throws Exception {
+        MvcResult started = mvc.perform(post("/api/solve/batch")
+                        .contentType("application/x-ndjson").content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        started.getAsyncResult(10_000);     // у пакета нет таймаута, а MockMvc ждёт именно его
+        String out = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return Arrays.stream(out.split("\n"))
+                .filter(l -> !l.isBlank())
+                .sorted(Comparator.comparingInt(l -> JsonPath.<Integer>read(l, "$.index")))
+                .toList();
+    }
+}
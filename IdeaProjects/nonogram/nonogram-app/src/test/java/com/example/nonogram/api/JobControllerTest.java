@@ -0,0 +1,56 @@
+package com.example.nonogram.api;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JobControllerTest {
+
+    private static final String CROSS = "{\"rows\":[[1],[3],[1]],\"columns\":[[1],[3],[1]]}";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void submittedJobCompletesWithResult() throws Exception {
+        String body = mvc.perform(post("/api/jobs").contentType(MediaType.APPLICATION_JSON).content(CROSS))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(body, "$.id");
+
+        String status = "QUEUED";
+        for (int i = 0; i < 500 && !status.equals("DONE"); i++) {
+            Thread.sleep(10);
+            String job = mvc.perform(get("/api/jobs/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            status = JsonPath.read(job, "$.status");
+        }
+        assertThat(status).isEqualTo("DONE");
+
+        mvc.perform(get("/api/jobs/" + id))
+                .andExpect(jsonPath("$.result.status").value("SOLVED"))
+                .andExpect(jsonPath("$.result.filled[1][1]").value(true));
+    }
+
+    @Test
+    void unknownJobIsNotFound() throws Exception {
+        mvc.perform(get("/api/jobs/nope")).andExpect(status().isNotFound());
+        mvc.perform(delete("/api/jobs/nope")).andExpect(status().isNotFound());
+    }
+}
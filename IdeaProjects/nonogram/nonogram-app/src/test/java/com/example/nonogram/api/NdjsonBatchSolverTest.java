@@ -0,0 +1,100 @@
+package com.example.nonogram.api;
+
+import com.example.nonogram.config.BatchProperties;
+import com.example.nonogram.core.SolveLimits;
+import com.example.nonogram.core.model.SolveResult;
+import com.example.nonogram.core.model.SolveStatus;
+import com.example.nonogram.core.model.Solution;
+import com.example.nonogram.service.NonogramService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NdjsonBatchSolverTest {
+
+    private final NonogramService service = mock(NonogramService.class);
+    private NdjsonBatchSolver batch;
+
+    @AfterEach
+    void tearDown() {
+        if (batch != null) batch.close();
+    }
+
+    @Test
+    void brokenOutputCancelsSolvesInFlightAndKeepsTheOriginalError() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(service.solve(any(), any())).then(inv -> {
+            SolveLimits limits = inv.getArgument(1);
+            started.countDown();
+            while (!limits.isCancelled()) Thread.onSpinWait();
+            cancelled.countDown();
+            return SolveResult.of(SolveStatus.PARTIAL, Solution.empty(inv.getArgument(0)), new boolean[1][1]);
+        });
+        batch = new NdjsonBatchSolver(service, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), props(2, 2));
+        String body = "{\"rows\":[[1]],\"columns\":[[1]]}\n{not json\n";
+
+        // вторая строка отвечает сразу, её запись и обрывает запрос, пока первая ещё решается
+        assertThatThrownBy(() -> batch.solve(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), new BrokenStream(started),
+                SolveLimits.NONE))
+                .isInstanceOf(IOException.class)
+                .hasMessage("client gone");
+        assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static BatchProperties props(int parallelism, int maxInFlight) {
+        BatchProperties p = new BatchProperties();
+        p.setParallelism(parallelism);
+        p.setMaxInFlight(maxInFlight);
+        return p;
+    }
+
+    /** Поток оборванного соединения: любая запись и сброс падают. */
+    private static final class BrokenStream extends OutputStream {
+        private final CountDownLatch started;
+
+        BrokenStream(CountDownLatch started) {
+            this.started = started;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            fail();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            fail();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            throw new IOException("flush on closed stream");
+        }
+
+        private void fail() throws IOException {
+            try {
+                started.await(5, TimeUnit.SECONDS);     // первая строка уже в решателе
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("client gone");
+        }
+    }
+}
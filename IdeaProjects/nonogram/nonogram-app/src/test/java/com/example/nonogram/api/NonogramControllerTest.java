@@ -0,0 +1,249 @@
+package com.example.nonogram.api;
+
+import com.example.nonogram.adapters.SaxJpnXmlReader;
+import com.example.nonogram.api.dto.GridEncoding;
+import com.example.nonogram.core.model.Crossword;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class NonogramControllerTest {
+
+    private static final String DIAGONAL = "{\"rows\":[[1],[1]],\"columns\":[[1],[1]]}";
+    private static final String CROSS = "{\"rows\":[[1],[3],[1]],\"columns\":[[1],[3],[1]]}";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void solveWithoutMaxSolutionsReturnsSingleGrid() throws Exception {
+        mvc.perform(post("/api/solve").contentType(MediaType.APPLICATION_JSON).content(CROSS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SOLVED"))
+                .andExpect(jsonPath("$.height").value(3))
+                .andExpect(jsonPath("$.filled[1][0]").value(true))
+                .andExpect(jsonPath("$.known").doesNotExist());
+    }
+
+    @Test
+    void solveLimitsAreAcceptedAndValidated() throws Exception {
+        mvc.perform(post("/api/solve").param("timeoutMs", "1000").param("maxNodes", "10")
+                        .contentType(MediaType.APPLICATION_JSON).content(CROSS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SOLVED"));
+        mvc.perform(post("/api/solve").param("timeoutMs", "0")
+                        .contentType(MediaType.APPLICATION_JSON).content(CROSS))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void maxSolutionsTwoAnswersUniqueness() throws Exception {
+        mvc.perform(post("/api/solve").param("maxSolutions", "2")
+                        .contentType(MediaType.APPLICATION_JSON).content(CROSS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SOLVED"))
+                .andExpect(jsonPath("$.found").value(1))
+                .andExpect(jsonPath("$.complete").value(true));
+
+        mvc.perform(post("/api/solve").param("maxSolutions", "2")
+                        .contentType(MediaType.APPLICATION_JSON).content(DIAGONAL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found").value(2))
+                .andExpect(jsonPath("$.complete").value(false))
+                .andExpect(jsonPath("$.solutions.length()").value(2));
+    }
+
+    @Test
+    void lineCacheStatsAreExposed() throws Exception {
+        mvc.perform(post("/api/solve").contentType(MediaType.APPLICATION_JSON).content(CROSS))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/api/cache/lines"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled").value(true))
+                .andExpect(jsonPath("$.entries").isNumber());
+    }
+
+    @Test
+    void repeatedBuiltinSolvesComeFromResultCache() throws Exception {
+        mvc.perform(get("/api/solve/builtin/fregat")).andExpect(status().isOk());
+        long hits = resultCacheHits();
+
+        mvc.perform(get("/api/solve/builtin/fregat"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.height").isNumber());
+
+        assertThat(resultCacheHits()).isEqualTo(hits + 1);
+    }
+
+    private long resultCacheHits() throws Exception {
+        String json = mvc.perform(get("/api/cache/results"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled").value(true))
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.<Number>read(json, "$.hits").longValue();
+    }
+
+    @Test
+    void enumerationStoppedByLimitsReportsItInsteadOfLookingComplete() throws Exception {
+        mvc.perform(post("/api/solve").param("maxSolutions", "2").param("maxNodes", "1")
+                        .contentType(MediaType.APPLICATION_JSON).content(DIAGONAL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PARTIAL"))
+                .andExpect(jsonPath("$.found").value(1))
+                .andExpect(jsonPath("$.complete").value(false));
+
+        mvc.perform(post("/api/solve").param("maxSolutions", "2").param("maxNodes", "1")
+                        .accept(MediaType.APPLICATION_OCTET_STREAM)
+                        .contentType(MediaType.APPLICATION_JSON).content(DIAGONAL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(GridOctetStreamConverter.STATUS, "PARTIAL"))
+                .andExpect(header().string(GridOctetStreamConverter.COMPLETE, "false"));
+
+        mvc.perform(post("/api/solve").param("maxSolutions", "2").param("timeoutMs", "0")
+                        .contentType(MediaType.APPLICATION_JSON).content(DIAGONAL))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void maxSolutionsOutOfRangeIsRejected() throws Exception {
+        mvc.perform(post("/api/solve").param("maxSolutions", "0")
+                        .contentType(MediaType.APPLICATION_JSON).content(CROSS))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/api/solve").param("maxSolutions", String.valueOf(NonogramController.MAX_SOLUTIONS + 1))
+                        .contentType(MediaType.APPLICATION_JSON).content(CROSS))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void bitsEncodingIsBase64Bitmap() throws Exception {
+        String json = mvc.perform(post("/api/solve").accept(GridEncoding.BITS_JSON)
+                        .contentType(MediaType.APPLICATION_JSON).content(CROSS))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(GridEncoding.BITS_JSON))
+                .andExpect(jsonPath("$.status").value("SOLVED"))
+                .andExpect(jsonPath("$.width").value(3))
+                .andReturn().getResponse().getContentAsString();
+
+        // клетки 1, 3, 4, 5, 7 — биты первого байта, девятая во втором
+        assertThat(Base64.getDecoder().decode(JsonPath.<String>read(json, "$.filled")))
+                .containsExactly(0xBA, 0x00);
+    }
+
+    @Test
+    void rleEncodingAlternatesBlankAndFilledRuns() throws Exception {
+        mvc.perform(post("/api/solve").accept(GridEncoding.RLE_JSON)
+                        .contentType(MediaType.APPLICATION_JSON).content(CROSS))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(GridEncoding.RLE_JSON))
+                .andExpect(jsonPath("$.filled[0]").value(contains(1, 1, 1)))
+                .andExpect(jsonPath("$.filled[1]").value(contains(0, 3)));
+
+        mvc.perform(post("/api/solve").param("maxSolutions", "2").accept(GridEncoding.RLE_JSON)
+                        .contentType(MediaType.APPLICATION_JSON).content(CROSS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.solutions[0].filled[2]").value(contains(1, 1, 1)));
+    }
+
+    @Test
+    void octetStreamIsRawBitmapWithHeaders() throws Exception {
+        byte[] body = mvc.perform(get("/api/solve/builtin/a-test-cross").accept(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string(GridOctetStreamConverter.STATUS, "SOLVED"))
+                .andExpect(header().doesNotExist(GridOctetStreamConverter.KNOWN))
+                .andReturn().getResponse().getContentAsByteArray();
+        String json = mvc.perform(get("/api/solve/builtin/a-test-cross"))
+                .andReturn().getResponse().getContentAsString();
+
+        int h = JsonPath.<Integer>read(json, "$.height"), w = JsonPath.<Integer>read(json, "$.width");
+        assertThat(body).hasSize((h * w + 7) / 8);
+        for (int i = 0; i < h * w; i++) {
+            boolean filled = JsonPath.<Boolean>read(json, "$.filled[" + i / w + "][" + i % w + "]");
+            assertThat((body[i >>> 3] >>> (i & 7) & 1) == 1).as("cell %d", i).isEqualTo(filled);
+        }
+    }
+
+    @Test
+    void octetStreamOfSolutionsConcatenatesBitmaps() throws Exception {
+        byte[] body = mvc.perform(post("/api/solve").param("maxSolutions", "5").accept(MediaType.APPLICATION_OCTET_STREAM)
+                        .contentType(MediaType.APPLICATION_JSON).content(DIAGONAL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(GridOctetStreamConverter.FOUND, "2"))
+                .andExpect(header().string(GridOctetStreamConverter.COMPLETE, "true"))
+                .andExpect(header().string(GridOctetStreamConverter.WIDTH, "2"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(body).containsExactlyInAnyOrder(0b1001, 0b0110);
+    }
+
+    @Test
+    void exportStreamsJpnXmlAndRejectsRaggedGridUpFront() throws Exception {
+        MvcResult started = mvc.perform(post("/api/export/jpnxml").param("name", "cross")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filled\":[[false,true,false],[true,true,true],[false,true,false]]}"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"cross.jpnxml\""))
+                .andReturn();
+        started.getAsyncResult(10_000);     // у экспорта нет таймаута, а MockMvc ждёт именно его
+        String xml = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Crossword back = new SaxJpnXmlReader().read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(back.getRows()).isEqualTo(List.of(List.of(1), List.of(3), List.of(1)));
+        assertThat(back.getColumns()).isEqualTo(List.of(List.of(1), List.of(3), List.of(1)));
+
+        mvc.perform(post("/api/export/jpnxml").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filled\":[[true,true],[true]]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void jsonStaysTheDefault() throws Exception {
+        mvc.perform(post("/api/solve").accept(MediaType.ALL)
+                        .contentType(MediaType.APPLICATION_JSON).content(CROSS))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.filled[1][0]").value(true));
+        mvc.perform(get("/api/solve/builtin/a-test-cross"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void defaultJsonIsWrittenWithBootsObjectMapper(@Autowired RequestMappingHandlerAdapter adapter,
+                                                   @Autowired ObjectMapper mapper) {
+        // обычный JSON пишет первый из них; иначе spring.jackson.* и модули Jackson на него не действуют
+        assertThat(adapter.getMessageConverters())
+                .filteredOn(c -> c.getClass() == MappingJackson2HttpMessageConverter.class)
+                .first()
+                .satisfies(c -> assertThat(((MappingJackson2HttpMessageConverter) c).getObjectMapper()).isSameAs(mapper));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.nonogram.api;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SolveStreamControllerTest {
+
+    private static final String CROSS = "{\"rows\":[[1],[3],[1]],\"columns\":[[1],[3],[1]]}";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void streamOfBuiltinEndsWithSolvedResultCoveringEveryCell() throws Exception {
+        List<String> events = stream(mvc.perform(get("/api/solve/stream").param("name", "kon100").param("intervalMs", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn());
+
+        assertThat(events.get(0)).startsWith("start ");
+        assertThat(events.get(events.size() - 1)).startsWith("result ");
+        int height = JsonPath.read(data(events.get(0)), "$.height");
+        int width = JsonPath.read(data(events.get(0)), "$.width");
+        int cells = 0;
+        for (String e : events.subList(1, events.size())) {
+            cells += JsonPath.<List<?>>read(data(e), "$.filled").size();
+            cells += JsonPath.<List<?>>read(data(e), "$.blank").size();
+        }
+        assertThat(cells).isEqualTo(height * width);
+        assertThat(JsonPath.<String>read(data(events.get(events.size() - 1)), "$.status")).isEqualTo("SOLVED");
+    }
+
+    @Test
+    void postedCrosswordIsStreamed() throws Exception {
+        List<String> events = stream(mvc.perform(post("/api/solve/stream")
+                        .contentType(MediaType.APPLICATION_JSON).content(CROSS))
+                .andExpect(request().asyncStarted())
+                .andReturn());
+
+        assertThat(events).hasSizeGreaterThanOrEqualTo(2);
+        assertThat(JsonPath.<Integer>read(data(events.get(events.size() - 1)), "$.known")).isEqualTo(9);
+    }
+
+    /** События в виде "имя данные"; ждёт, пока поток закроется. */
+    private static List<String> stream(MvcResult result) throws Exception {
+        result.getAsyncResult(30_000);
+        List<String> events = new ArrayList<>();
+        String name = null;
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            if (line.startsWith("event:")) name = line.substring(6).trim();
+            else if (line.startsWith("data:")) events.add(name + " " + line.substring(5).trim());
+        }
+        return events;
+    }
+
+    private static String data(String event) {
+        return event.substring(event.indexOf(' ') + 1);
+    }
+}
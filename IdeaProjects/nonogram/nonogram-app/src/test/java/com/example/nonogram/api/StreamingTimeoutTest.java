@@ -0,0 +1,89 @@
+package com.example.nonogram.api;
+
+import com.example.nonogram.core.SolveLimits;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.service.NonogramService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Потоковые ответы на настоящем сервере: MockMvc таймаут асинхронной фазы не применяет,
+ * а обрывал ответы именно он. Общий таймаут здесь намного короче, чем длится каждый ответ.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.mvc.async.request-timeout=500ms",
+        "nonogram.batch.parallelism=1",
+        "nonogram.batch.max-in-flight=1",
+        "nonogram.result-cache.enabled=false"
+})
+class StreamingTimeoutTest {
+
+    private static final String CROSS = "{\"rows\":[[1],[3],[1]],\"columns\":[[1],[3],[1]]}";
+    private static final long STEP_MILLIS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoSpyBean
+    private NonogramService service;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void batchOutlivesTheAsyncRequestTimeout() throws Exception {
+        doAnswer(inv -> {
+            Thread.sleep(STEP_MILLIS);
+            return inv.callRealMethod();
+        }).when(service).solve(any(Crossword.class), any(SolveLimits.class));
+        int n = 15;  // ~3 с: Tomcat проверяет таймауты раз в секунду
+
+        HttpResponse<String> response = post("/api/solve/batch", "application/x-ndjson", (CROSS + "\n").repeat(n));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body().lines()).hasSize(n)
+                .allSatisfy(l -> assertThat(l).contains("\"SOLVED\""));
+    }
+
+    @Test
+    void exportOutlivesTheAsyncRequestTimeout() throws Exception {
+        String chunk = "<!-- " + "x".repeat(100) + " -->\n";
+        int n = 15;
+        doAnswer(inv -> {
+            OutputStream out = inv.getArgument(1);
+            for (int i = 0; i < n; i++) {
+                Thread.sleep(STEP_MILLIS);
+                out.write(chunk.getBytes(StandardCharsets.UTF_8));
+                out.flush();    // ответ уже отправлен — поздно менять статус
+            }
+            return null;
+        }).when(service).exportJpnXml(any(), any());
+
+        HttpResponse<String> response = post("/api/export/jpnxml", "application/json", "{\"filled\":[[true]]}");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(chunk.repeat(n));
+    }
+
+    private HttpResponse<String> post(String path, String contentType, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", contentType)
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.nonogram.api.dto;
+
+import com.example.nonogram.api.Mapper;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.SolveResult;
+import com.example.nonogram.core.model.SolveStatus;
+import com.example.nonogram.core.model.Solution;
+import com.example.nonogram.solver.JPNAntiSolver;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Random;
+
+import static com.example.nonogram.PuzzleFixtures.randomPicture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GridSerializerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void allEncodingsDescribeTheSameGrid() throws IOException {
+        boolean[][] grid = randomPicture(new Random(21), 37, 131, 0.5);
+        boolean[][] known = randomPicture(new Random(22), 37, 131, 0.5);
+        Crossword cw = new JPNAntiSolver().antiSolve(grid);
+        SolveResultDto dto = Mapper.toDto(SolveResult.of(SolveStatus.PARTIAL, Solution.of(cw, grid), known));
+
+        JsonNode booleans = write(dto, GridEncoding.BOOLEANS);
+        JsonNode bits = write(dto, GridEncoding.BITS);
+        JsonNode rle = write(dto, GridEncoding.RLE);
+
+        assertThat(booleans.get("status").asText()).isEqualTo("PARTIAL");
+        for (String field : new String[]{"filled", "known"}) {
+            boolean[][] expected = field.equals("filled") ? grid : known;
+            assertThat(fromBooleans(booleans.get(field))).isDeepEqualTo(expected);
+            assertThat(fromBitmap(Base64.getDecoder().decode(bits.get(field).asText()), 37, 131)).isDeepEqualTo(expected);
+            assertThat(fromRuns(rle.get(field), 131)).isDeepEqualTo(expected);
+        }
+    }
+
+    @Test
+    void bitmapStreamPacksCellsRowMajorLsbFirst() throws IOException {
+        boolean[][] grid = randomPicture(new Random(5), 9, 70, 0.5);
+        Solution s = Solution.of(new JPNAntiSolver().antiSolve(grid), grid);
+
+        byte[] bytes = new GridBitmapStream(GridRows.filled(s)).readAllBytes();
+
+        assertThat(bytes).hasSize((9 * 70 + 7) / 8);
+        assertThat(GridBitmapStream.size(GridRows.filled(s))).isEqualTo(bytes.length);
+        assertThat(fromBitmap(bytes, 9, 70)).isDeepEqualTo(grid);
+    }
+
+    @Test
+    void runsOfEmptyAndFullRows() throws IOException {
+        boolean[][] grid = {{false, false, false}, {true, true, true}, {true, false, true}};
+        Crossword cw = new JPNAntiSolver().antiSolve(grid);
+
+        JsonNode rle = write(Mapper.toDto(SolveResult.solved(Solution.of(cw, grid))), GridEncoding.RLE);
+
+        assertThat(rle.get("filled").toString()).isEqualTo("[[3],[0,3],[0,1,1,1]]");
+        assertThat(rle.has("known")).isFalse();
+    }
+
+    private JsonNode write(Object dto, GridEncoding encoding) throws IOException {
+        return mapper.readTree(mapper.writer().withAttribute(GridEncoding.class, encoding).writeValueAsBytes(dto));
+    }
+
+    private static boolean[][] fromBooleans(JsonNode rows) {
+        boolean[][] g = new boolean[rows.size()][];
+        for (int r = 0; r < g.length; r++) {
+            g[r] = new boolean[rows.get(r).size()];
+            for (int c = 0; c < g[r].length; c++) g[r][c] = rows.get(r).get(c).asBoolean();
+        }
+        return g;
+    }
+
+    private static boolean[][] fromBitmap(byte[] bytes, int h, int w) {
+        boolean[][] g = new boolean[h][w];
+        for (int i = 0; i < h * w; i++) g[i / w][i % w] = (bytes[i >>> 3] >>> (i & 7) & 1) == 1;
+        return g;
+    }
+
+    private static boolean[][] fromRuns(JsonNode rows, int w) {
+        boolean[][] g = new boolean[rows.size()][w];
+        for (int r = 0; r < g.length; r++) {
+            int pos = 0;
+            boolean filled = false;
+            for (JsonNode run : rows.get(r)) {
+                for (int k = 0; k < run.asInt(); k++) g[r][pos++] = filled;
+                filled = !filled;
+            }
+            assertThat(pos).isEqualTo(w);
+        }
+        return g;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.nonogram.core.io.binary;
+
+import com.example.nonogram.adapters.SaxJpnXmlReader;
+import com.example.nonogram.core.io.JpnBinaryFormatException;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.solver.JPNAntiSolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.nonogram.PuzzleFixtures.assertSameClues;
+import static com.example.nonogram.PuzzleFixtures.builtin;
+import static com.example.nonogram.PuzzleFixtures.builtinBytes;
+import static com.example.nonogram.PuzzleFixtures.builtinNames;
+import static com.example.nonogram.PuzzleFixtures.randomPicture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JpnBinaryFormatTest {
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a-test-cross", "cat", "fregat", "kon100"})
+    void builtinPuzzleRoundTrips(String name) throws IOException {
+        Crossword cw = builtin(name);
+
+        assertSameClues(readBinary(writeBinary(cw)), cw);
+    }
+
+    @Test
+    void emptyLinesAndLargeCluesRoundTrip() {
+        Crossword cw = new Crossword(
+                List.of(List.of(), List.of(127, 128), List.of(16_383, 16_384, 1 << 21), List.of(Integer.MAX_VALUE)),
+                List.of(List.of(1), List.of()));
+
+        assertSameClues(readBinary(writeBinary(cw)), cw);
+    }
+
+    @Test
+    void binaryIsMuchSmallerThanXml() throws IOException {
+        byte[] xml = builtinBytes("kon100");
+        assertThat(writeBinary(builtin("kon100")).length).isLessThan(xml.length / 3);
+    }
+
+    @Test
+    void libraryBuiltFromJpnxmlFilesDecodesEachPuzzleByIndex() throws IOException {
+        List<String> names = builtinNames();
+        List<Path> files = new ArrayList<>();
+        for (String name : names) files.add(Files.write(dir.resolve(name + ".JPNXML"), builtinBytes(name)));
+        Path library = dir.resolve("all.jpnl");
+
+        int written = new JpnBinaryConverter(new SaxJpnXmlReader()).buildLibrary(files, library);
+
+        assertThat(written).isEqualTo(names.size());
+        try (JpnLibrary lib = JpnLibrary.open(library)) {
+            assertThat(lib.size()).isEqualTo(names.size());
+            for (int i = names.size() - 1; i >= 0; i--) assertSameClues(lib.get(i), builtin(names.get(i)));
+            assertThatThrownBy(() -> lib.get(names.size())).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+    }
+
+    @Test
+    void largeGeneratedLibrarySupportsRandomAccess() throws IOException {
+        Random rnd = new Random(17);
+        List<Crossword> puzzles = new ArrayList<>();
+        Path library = dir.resolve("gen.jpnl");
+        try (JpnLibraryWriter out = JpnLibraryWriter.create(library)) {
+            for (int i = 0; i < 500; i++) {
+                Crossword cw = new JPNAntiSolver().antiSolve(randomPicture(rnd, 1 + rnd.nextInt(40), 1 + rnd.nextInt(40), 0.5));
+                puzzles.add(cw);
+                out.add(cw);
+            }
+        }
+
+        try (JpnLibrary lib = JpnLibrary.open(library)) {
+            assertThat(lib.size()).isEqualTo(puzzles.size());
+            for (int k = 0; k < 200; k++) {
+                int i = rnd.nextInt(puzzles.size());
+                assertSameClues(lib.get(i), puzzles.get(i));
+            }
+        }
+    }
+
+    @Test
+    void emptyLibraryOpens() throws IOException {
+        Path library = dir.resolve("empty.jpnl");
+        JpnLibraryWriter.create(library).close();
+
+        try (JpnLibrary lib = JpnLibrary.open(library)) {
+            assertThat(lib.size()).isZero();
+        }
+    }
+
+    @Test
+    void rejectsCorruptInput() throws IOException {
+        byte[] good = writeBinary(builtin("a-test-cross"));
+
+        assertThatThrownBy(() -> readBinary(Arrays.copyOf(good, good.length - 1)))
+                .isInstanceOf(JpnBinaryFormatException.class);
+        assertThatThrownBy(() -> readBinary(Arrays.copyOf(good, good.length + 1)))
+                .isInstanceOf(JpnBinaryFormatException.class);
+        assertThatThrownBy(() -> readBinary(new byte[]{'J', 'P', 'N', 'B', 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x7F}))
+                .isInstanceOf(JpnBinaryFormatException.class);
+        assertThatThrownBy(() -> readBinary("<crossword/>".getBytes()))
+                .isInstanceOf(JpnBinaryFormatException.class);
+
+        Path library = dir.resolve("broken.jpnl");
+        try (JpnLibraryWriter out = JpnLibraryWriter.create(library)) {
+            out.add(builtin("a-test-cross"));
+        }
+        byte[] bytes = Files.readAllBytes(library);
+        Files.write(library, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThatThrownBy(() -> JpnLibrary.open(library)).isInstanceOf(JpnBinaryFormatException.class);
+    }
+
+    private static byte[] writeBinary(Crossword cw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new VarintJpnBinaryWriter().write(cw, out);
+        return out.toByteArray();
+    }
+
+    private static Crossword readBinary(byte[] bytes) {
+        return new VarintJpnBinaryReader().read(new ByteArrayInputStream(bytes));
+    }
+
+}
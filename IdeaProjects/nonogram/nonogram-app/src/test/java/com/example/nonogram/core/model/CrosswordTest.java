@@ -0,0 +1,122 @@
+package com.example.nonogram.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.IntBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CrosswordTest {
+
+    private static final List<List<Integer>> ROWS = List.of(List.of(1, 2), List.of(), List.of(0), List.of(4));
+    private static final List<List<Integer>> COLUMNS = List.of(List.of(3), List.of(1, 1, 1));
+
+    @Test
+    void primitiveAccessorsMatchLists() {
+        Crossword cw = new Crossword(ROWS, COLUMNS);
+
+        assertThat(cw.height()).isEqualTo(4);
+        assertThat(cw.width()).isEqualTo(2);
+        assertThat(cw.clueCount()).isEqualTo(8);
+        assertThat(cw.rowClueLength(0)).isEqualTo(2);
+        assertThat(cw.rowClue(0, 1)).isEqualTo(2);
+        assertThat(cw.rowClueLength(1)).isZero();
+        assertThat(cw.rowClue(2, 0)).isZero();
+        assertThat(cw.columnClueLength(1)).isEqualTo(3);
+        assertThat(cw.columnClue(0, 0)).isEqualTo(3);
+        assertThat(cw.copyRowClues(3)).containsExactly(4);
+        assertThat(cw.copyColumnClues(1)).containsExactly(1, 1, 1);
+    }
+
+    @Test
+    void listGettersAreEqualReadOnlyViews() {
+        Crossword cw = new Crossword(ROWS, COLUMNS);
+
+        assertThat(cw.getRows()).isEqualTo(ROWS).hasSameHashCodeAs(ROWS);
+        assertThat(cw.getColumns()).isEqualTo(COLUMNS);
+        assertThat(cw.getRows()).isSameAs(cw.getRows());
+        assertThatThrownBy(() -> cw.getRows().add(List.of(1))).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> cw.getRows().get(0).set(0, 9)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> cw.getRows().get(1).get(0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void intViewIsReadOnlyAndScopedToLine() {
+        Crossword cw = new Crossword(ROWS, COLUMNS);
+
+        IntBuffer row = cw.rowClues(0);
+        assertThat(row.isReadOnly()).isTrue();
+        assertThat(row.remaining()).isEqualTo(2);
+        assertThat(row.get(0)).isEqualTo(1);
+        assertThat(row.get(1)).isEqualTo(2);
+        assertThatThrownBy(() -> row.put(0, 7)).isInstanceOf(ReadOnlyBufferException.class);
+        assertThat(cw.columnClues(1).remaining()).isEqualTo(3);
+    }
+
+    @Test
+    void clueIndexOutsideLineIsRejected() {
+        Crossword cw = new Crossword(ROWS, COLUMNS);
+
+        assertThatThrownBy(() -> cw.rowClue(0, 2)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> cw.rowClue(1, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> cw.columnClue(0, -1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void sourceListsAreCopied() {
+        List<Integer> line = new ArrayList<>(List.of(5));
+        Crossword cw = new Crossword(List.of(line), List.of(List.of(1)));
+        line.set(0, 6);
+
+        assertThat(cw.rowClue(0, 0)).isEqualTo(5);
+    }
+
+    @Test
+    void builderAcceptsSectionsInAnyOrderAndCopiesInput() {
+        int[] buf = {3, 0, 0};
+        Crossword.Builder b = Crossword.builder()
+                .column(buf, 0, 1)
+                .column(1, 1, 1);
+        for (List<Integer> r : ROWS) {
+            for (int i = 0; i < r.size(); i++) buf[i] = r.get(i);
+            b.row(buf, 0, r.size());
+        }
+        Arrays.fill(buf, 99);
+
+        Crossword cw = b.build();
+
+        assertThat(cw.getRows()).isEqualTo(ROWS);
+        assertThat(cw.getColumns()).isEqualTo(COLUMNS);
+        assertThat(cw.rowClueLength(1)).isZero();
+    }
+
+    @Test
+    void flatLayoutIsTakenAsIs() {
+        Crossword cw = Crossword.ofFlat(new int[]{1, 2, 0, 4, 3, 1, 1, 1}, new int[]{0, 2, 2, 3, 4}, new int[]{4, 5, 8});
+
+        assertThat(cw.getRows()).isEqualTo(ROWS);
+        assertThat(cw.getColumns()).isEqualTo(COLUMNS);
+        assertThatThrownBy(() -> Crossword.ofFlat(new int[]{1, 2}, new int[]{0, 1}, new int[]{1, 1}))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("cover");
+        assertThatThrownBy(() -> Crossword.ofFlat(new int[]{1, 2}, new int[]{0, 2, 1}, new int[]{1, 2}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Crossword.ofFlat(new int[]{-1, 2}, new int[]{0, 1}, new int[]{1, 2}))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining(">= 0");
+    }
+
+    @Test
+    void invalidInputIsRejected() {
+        assertThatThrownBy(() -> new Crossword(List.of(), COLUMNS)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Crossword(Arrays.asList(List.of(1), null), COLUMNS))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("null");
+        assertThatThrownBy(() -> new Crossword(List.of(List.of(-1)), COLUMNS))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining(">= 0");
+        assertThatThrownBy(() -> Crossword.builder().row(1).build()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Crossword.builder().row(-2)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
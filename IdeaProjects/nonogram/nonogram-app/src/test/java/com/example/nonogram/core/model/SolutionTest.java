@@ -0,0 +1,108 @@
+package com.example.nonogram.core.model;
+
+import com.example.nonogram.solver.JPNAntiSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.example.nonogram.PuzzleFixtures.assertSameClues;
+import static com.example.nonogram.PuzzleFixtures.randomPicture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SolutionTest {
+
+    @Test
+    void packsOneBitPerCellWithRowsWordAligned() {
+        Crossword cw = square(2000);
+        Solution s = Solution.empty(cw);
+
+        assertThat(s.rowWords()).isEqualTo(32);
+        assertThat(s.toRowBits()).hasSize(2000 * 32);     // 0,5 МБ
+    }
+
+    @Test
+    void matchesBooleanGridAcrossWordBoundaries() {
+        boolean[][] grid = randomPicture(new Random(3), 70, 130, 0.67);
+        Crossword cw = new JPNAntiSolver().antiSolve(grid);
+        Solution s = Solution.of(cw, grid);
+
+        for (int r = 0; r < 70; r++)
+            for (int c = 0; c < 130; c++)
+                assertThat(s.isFilled(r, c)).isEqualTo(grid[r][c]);
+
+        long filled = 0;
+        for (boolean[] row : grid) for (boolean f : row) if (f) filled++;
+        assertThat(s.filledCount()).isEqualTo(filled);
+    }
+
+    @Test
+    void runsMatchClues() {
+        boolean[][] grid = randomPicture(new Random(5), 90, 67, 0.67);
+        grid[0] = new boolean[67];
+        Arrays.fill(grid[1], true);
+        Crossword cw = new JPNAntiSolver().antiSolve(grid);
+        Solution s = Solution.of(cw, grid);
+
+        for (int r = 0; r < cw.height(); r++) assertThat(s.rowRuns(r)).containsExactly(cw.copyRowClues(r));
+        for (int c = 0; c < cw.width(); c++) assertThat(s.columnRuns(c)).containsExactly(cw.copyColumnClues(c));
+        assertThat(s.rowRuns(1)).containsExactly(67);
+        assertThat(s.rowRuns(0)).isEmpty();
+    }
+
+    @Test
+    void bulkRowAndColumnReads() {
+        Solution s = Solution.empty(square(100));
+        s.setFilled(3, 0, true);
+        s.setFilled(3, 99, true);
+        s.setFilled(70, 99, true);
+
+        long[] row = new long[2];
+        s.copyRow(3, row, 0);
+        assertThat(row).containsExactly(1L, 1L << 35);
+        assertThat(s.rowWord(3, 1)).isEqualTo(1L << 35);
+        assertThatThrownBy(() -> s.rowWord(3, 2)).isInstanceOf(IndexOutOfBoundsException.class);
+
+        long[] column = new long[]{-1L, -1L};
+        s.copyColumn(99, column, 0);
+        assertThat(column).containsExactly(1L << 3, 1L << 6);
+    }
+
+    @Test
+    void rowBitsAreTakenWithoutCopyAndValidated() {
+        Crossword cw = square(3);
+        long[] bits = {0b101, 0, 0b010};
+        Solution s = Solution.ofRowBits(cw, bits);
+
+        assertThat(s.isFilled(0, 2)).isTrue();
+        assertThat(s.isFilled(2, 1)).isTrue();
+        assertThat(s.copy().toRowBits()).containsExactly(bits);
+        assertThatThrownBy(() -> Solution.ofRowBits(cw, new long[]{0b1000, 0, 0})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Solution.ofRowBits(cw, new long[2])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cellOutsideGridIsRejected() {
+        Solution s = Solution.empty(square(3));
+
+        assertThatThrownBy(() -> s.isFilled(0, 3)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> s.setFilled(3, 0, true)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void antiSolverReadsBitsTheSameAsGrid() {
+        boolean[][] grid = randomPicture(new Random(11), 64, 129, 0.67);
+        Crossword cw = new JPNAntiSolver().antiSolve(grid);
+
+        Crossword fromBits = new JPNAntiSolver().antiSolve(Solution.of(cw, grid));
+
+        assertSameClues(fromBits, cw);
+    }
+
+    private static Crossword square(int n) {
+        Crossword.Builder b = Crossword.builder();
+        for (int i = 0; i < n; i++) b.row().column();
+        return b.build();
+    }
+}
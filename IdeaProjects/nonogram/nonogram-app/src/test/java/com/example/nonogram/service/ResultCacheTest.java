@@ -0,0 +1,125 @@
+package com.example.nonogram.service;
+
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.Solution;
+import com.example.nonogram.solver.JPNAntiSolver;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultCacheTest {
+
+    private static final boolean[][] CROSS = {
+            {false, true, false},
+            {true, true, true},
+            {false, true, false},
+    };
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void returnsCopyBoundToRequestedCrossword() {
+        ResultCache cache = new ResultCache(10, 1 << 20, 0, clock);
+        Crossword cw = new JPNAntiSolver().antiSolve(CROSS);
+        cache.put(cw, Solution.of(cw, CROSS));
+
+        Solution first = cache.get(cw);
+        first.setFilled(0, 0, true);
+        Solution second = cache.get(cw);
+
+        assertThat(second.isFilled(0, 0)).isFalse();
+        assertThat(second.isFilled(1, 0)).isTrue();
+        assertThat(second.crossword()).isSameAs(cw);
+        assertThat(cache.getHits()).isEqualTo(2);
+    }
+
+    @Test
+    void keyIgnoresZeroPlaceholders() {
+        ResultCache cache = new ResultCache(10, 1 << 20, 0, clock);
+        Crossword withZeros = new Crossword(List.of(List.of(1), List.of(0)), List.of(List.of(1), List.of(0)));
+        Crossword withEmpty = new Crossword(List.of(List.of(1), List.of()), List.of(List.of(1), List.of()));
+        cache.put(withZeros, Solution.of(withZeros, new boolean[][]{{true, false}, {false, false}}));
+
+        assertThat(cache.get(withEmpty)).isNotNull();
+        assertThat(cache.get(new Crossword(List.of(List.of(1), List.of()), List.of(List.of(), List.of(1))))).isNull();
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        ResultCache cache = new ResultCache(10, 1 << 20, 1000, clock);
+        Crossword cw = new JPNAntiSolver().antiSolve(CROSS);
+        cache.put(cw, Solution.of(cw, CROSS));
+
+        clock.advance(Duration.ofMillis(999));
+        assertThat(cache.get(cw)).isNotNull();
+        clock.advance(Duration.ofMillis(1));
+        assertThat(cache.get(cw)).isNull();
+        assertThat(cache.getEntries()).isZero();
+        assertThat(cache.getBytes()).isZero();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondEntryCap() {
+        ResultCache cache = new ResultCache(2, 1 << 20, 0, clock);
+        Crossword a = single(1), b = single(2), c = single(3);
+        cache.put(a, Solution.empty(a));
+        cache.put(b, Solution.empty(b));
+        cache.get(a);
+        cache.put(c, Solution.empty(c));
+
+        assertThat(cache.get(a)).isNotNull();
+        assertThat(cache.get(b)).isNull();
+        assertThat(cache.get(c)).isNotNull();
+        assertThat(cache.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void staysUnderByteCap() {
+        ResultCache cache = new ResultCache(1000, 4096, 0, clock);
+        for (int n = 1; n <= 200; n++) {
+            Crossword cw = single(n);
+            cache.put(cw, Solution.empty(cw));
+        }
+
+        assertThat(cache.getBytes()).isLessThanOrEqualTo(4096);
+        assertThat(cache.getEntries()).isLessThan(200);
+    }
+
+    /** Строка из {@code n} клеток, закрашенных целиком. */
+    private static Crossword single(int n) {
+        boolean[][] row = new boolean[1][n];
+        Arrays.fill(row[0], true);
+        return new JPNAntiSolver().antiSolve(row);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
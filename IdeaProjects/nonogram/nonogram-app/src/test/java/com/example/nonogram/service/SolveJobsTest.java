@@ -0,0 +1,167 @@
+package com.example.nonogram.service;
+
+import com.example.nonogram.config.JobProperties;
+import com.example.nonogram.core.SolveLimits;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.SolveResult;
+import com.example.nonogram.core.model.SolveStatus;
+import com.example.nonogram.core.model.Solution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SolveJobsTest {
+
+    private static final Crossword CW = new Crossword(List.of(List.of(1)), List.of(List.of(1)));
+    private static final SolveResult SOLVED = SolveResult.solved(Solution.of(CW, new boolean[][]{{true}}));
+
+    private final NonogramService service = mock(NonogramService.class);
+    private final MutableClock clock = new MutableClock();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SolveJobs jobs;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (jobs != null) jobs.close();
+    }
+
+    @Test
+    void finishedJobIsKeptForTtlThenEvicted() throws Exception {
+        when(service.solve(eq(CW), any(), any())).thenReturn(SOLVED);
+        jobs = new SolveJobs(service, props(1, 10, Duration.ofMinutes(1)), clock);
+
+        String id = jobs.submit(CW, SolveLimits.NONE).id();
+        SolveJobs.Snapshot done = awaitFinished(id);
+
+        assertThat(done.status()).isEqualTo(SolveJobs.Status.DONE);
+        assertThat(done.result().solution().isFilled(0, 0)).isTrue();
+        clock.advance(Duration.ofSeconds(59));
+        assertThat(jobs.get(id)).isPresent();
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(jobs.get(id)).isEmpty();
+    }
+
+    @Test
+    void errorInSolverFailsTheJobAndStillNotifies() throws Exception {
+        when(service.solve(eq(CW), any(), any())).thenThrow(new StackOverflowError());
+        jobs = new SolveJobs(service, props(1, 10, Duration.ofMinutes(1)), clock);
+        CountDownLatch notified = new CountDownLatch(1);
+
+        String id = jobs.submit(CW, SolveLimits.NONE, null, s -> notified.countDown()).id();
+        SolveJobs.Snapshot failed = awaitFinished(id);
+
+        assertThat(failed.status()).isEqualTo(SolveJobs.Status.FAILED);
+        assertThat(failed.error()).contains("StackOverflowError");
+        assertThat(notified.await(5, TimeUnit.SECONDS)).isTrue();
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(jobs.get(id)).isEmpty();
+    }
+
+    @Test
+    void rejectsSubmissionsBeyondQueueCapacity() {
+        when(service.solve(eq(CW), any(), any())).then(inv -> {
+            release.await();
+            return SOLVED;
+        });
+        jobs = new SolveJobs(service, props(1, 1, Duration.ofMinutes(1)), clock);
+
+        jobs.submit(CW, SolveLimits.NONE);        // решается
+        jobs.submit(CW, SolveLimits.NONE);        // ждёт в очереди
+
+        assertThatThrownBy(() -> jobs.submit(CW, SolveLimits.NONE)).isInstanceOf(JobQueueFullException.class);
+    }
+
+    @Test
+    void cancelledQueuedJobFreesItsQueueSlot() {
+        when(service.solve(eq(CW), any(), any())).then(inv -> {
+            release.await();
+            return SOLVED;
+        });
+        jobs = new SolveJobs(service, props(1, 1, Duration.ofMinutes(1)), clock);
+
+        jobs.submit(CW, SolveLimits.NONE);                        // решается
+        String queued = jobs.submit(CW, SolveLimits.NONE).id();   // занимает единственное место
+        jobs.cancel(queued);
+
+        assertThat(jobs.queueDepth()).isZero();
+        assertThat(jobs.submit(CW, SolveLimits.NONE).status()).isEqualTo(SolveJobs.Status.QUEUED);
+    }
+
+    @Test
+    void cancelsQueuedAndRunningJobs() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        when(service.solve(eq(CW), any(), any())).then(inv -> {
+            SolveLimits limits = inv.getArgument(1);
+            started.countDown();
+            while (!limits.isCancelled()) Thread.onSpinWait();
+            return SolveResult.of(SolveStatus.PARTIAL, Solution.empty(CW), new boolean[1][1]);
+        });
+        jobs = new SolveJobs(service, props(1, 5, Duration.ofMinutes(1)), clock);
+
+        String running = jobs.submit(CW, SolveLimits.NONE).id();
+        String queued = jobs.submit(CW, SolveLimits.NONE).id();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(jobs.cancel(queued).orElseThrow().status()).isEqualTo(SolveJobs.Status.CANCELLED);
+        jobs.cancel(running);
+        assertThat(awaitFinished(running).status()).isEqualTo(SolveJobs.Status.CANCELLED);
+        assertThat(jobs.cancel("no-such-job")).isEmpty();
+    }
+
+    private SolveJobs.Snapshot awaitFinished(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            SolveJobs.Snapshot s = jobs.get(id).orElseThrow();
+            if (s.status() != SolveJobs.Status.QUEUED && s.status() != SolveJobs.Status.RUNNING) return s;
+            Thread.sleep(5);
+        }
+        throw new AssertionError("job " + id + " did not finish");
+    }
+
+    private static JobProperties props(int threads, int queue, Duration ttl) {
+        JobProperties p = new JobProperties();
+        p.setThreads(threads);
+        p.setQueueCapacity(queue);
+        p.setTtl(ttl);
+        return p;
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
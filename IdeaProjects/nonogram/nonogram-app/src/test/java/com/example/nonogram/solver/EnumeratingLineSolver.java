@@ -0,0 +1,61 @@
+package com.example.nonogram.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Эталон для {@link LineSolver}: прежний подход — перечислить все допустимые раскладки
+ * линии в список и взять консенсус по каждой клетке. Экспоненциален, годится только для тестов
+ * и сравнительного бенчмарка в nonogram-bench.
+ */
+final class EnumeratingLineSolver {
+
+    private EnumeratingLineSolver() {}
+
+    /** @return уточнённая копия линии или {@code null}, если допустимых раскладок нет */
+    static byte[] solve(int[] clues, byte[] line) {
+        List<byte[]> variants = new ArrayList<>();
+        place(clues, line, 0, 0, new byte[line.length], variants);
+        if (variants.isEmpty()) return null;
+
+        byte[] out = line.clone();
+        for (int i = 0; i < line.length; i++) {
+            byte first = variants.get(0)[i];
+            boolean same = true;
+            for (int v = 1; v < variants.size() && same; v++) same = variants.get(v)[i] == first;
+            if (same) out[i] = first;
+        }
+        return out;
+    }
+
+    private static void place(int[] clues, byte[] line, int block, int pos, byte[] cur, List<byte[]> out) {
+        int n = line.length;
+        if (block == clues.length) {
+            for (int i = pos; i < n; i++) {
+                if (line[i] == LineSolver.FILLED) return;
+                cur[i] = LineSolver.BLANK;
+            }
+            out.add(cur.clone());
+            return;
+        }
+        int len = clues[block];
+        for (int s = pos; s + len <= n; s++) {
+            if (s > pos && line[s - 1] == LineSolver.FILLED) return;   // пропустили закрашенную
+            if (s > pos) cur[s - 1] = LineSolver.BLANK;
+
+            boolean ok = true;
+            for (int i = s; i < s + len && ok; i++) ok = line[i] != LineSolver.BLANK;
+            int end = s + len;
+            if (ok && end < n && line[end] == LineSolver.FILLED) ok = false;
+            if (!ok) continue;
+
+            for (int i = s; i < end; i++) cur[i] = LineSolver.FILLED;
+            if (end < n) {
+                cur[end] = LineSolver.BLANK;
+                place(clues, line, block + 1, end + 1, cur, out);
+            } else {
+                place(clues, line, block + 1, end, cur, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.nonogram.solver;
+
+import com.example.nonogram.core.ClueSink;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.Solution;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import static com.example.nonogram.PuzzleFixtures.assertSameClues;
+import static com.example.nonogram.PuzzleFixtures.randomPicture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JPNAntiSolverTest {
+
+    private final JPNAntiSolver antiSolver = new JPNAntiSolver();
+
+    @ParameterizedTest
+    @CsvSource({"1,1", "1,200", "200,1", "63,64", "64,63", "65,129", "128,128", "130,70", "257,300"})
+    void matchesCellByCellScanAcrossWordAndBlockEdges(int h, int w) {
+        for (double density : new double[]{0.0, 0.3, 0.7, 1.0}) {
+            boolean[][] picture = randomPicture(new Random(h * 31L + w), h, w, density);
+
+            assertCluesOf(antiSolver.antiSolve(picture), picture);
+        }
+    }
+
+    @Test
+    void parallelPathMatchesToo() {
+        boolean[][] picture = randomPicture(new Random(17), 1100, 1000, 0.5);
+        assertThat((long) 1100 * 1000).isGreaterThanOrEqualTo(JPNAntiSolver.PARALLEL_CELLS);
+
+        assertCluesOf(antiSolver.antiSolve(picture), picture);
+    }
+
+    @Test
+    void solutionOverloadMatchesGridOverload() {
+        boolean[][] picture = randomPicture(new Random(23), 150, 333, 0.6);
+        Crossword cw = antiSolver.antiSolve(picture);
+
+        Crossword fromBits = antiSolver.antiSolve(Solution.of(cw, picture));
+
+        assertSameClues(fromBits, cw);
+    }
+
+    @Test
+    void transpose64SwapsRowsAndColumns() {
+        Random rnd = new Random(5);
+        long[] a = new long[64];
+        for (int i = 0; i < 64; i++) a[i] = rnd.nextLong();
+        long[] t = a.clone();
+
+        JPNAntiSolver.transpose64(t);
+
+        for (int i = 0; i < 64; i++)
+            for (int j = 0; j < 64; j++)
+                assertThat((t[j] >>> i) & 1).isEqualTo((a[i] >>> j) & 1);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1,1", "1,200", "200,1", "64,63", "65,129", "257,300"})
+    void streamedCluesMatchCellByCellScan(int h, int w) {
+        for (double density : new double[]{0.0, 0.3, 0.7, 1.0}) {
+            boolean[][] picture = randomPicture(new Random(h * 17L + w), h, w, density);
+
+            assertCluesOf(streamed(picture), picture);
+        }
+    }
+
+    @Test
+    void streamRejectsBadGridBeforeFirstLine() {
+        List<String> calls = new ArrayList<>();
+        ClueSink sink = new ClueSink() {
+            @Override
+            public void row(int[] clues, int from, int count) {
+                calls.add("row");
+            }
+
+            @Override
+            public void column(int[] clues, int from, int count) {
+                calls.add("column");
+            }
+        };
+
+        assertThatThrownBy(() -> antiSolver.antiSolve(new boolean[][]{{true, true}, {true}}, sink))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(calls).isEmpty();
+    }
+
+    @Test
+    void nonRectangularGridIsRejected() {
+        assertThatThrownBy(() -> antiSolver.antiSolve(new boolean[][]{{true}, {true, false}}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> antiSolver.antiSolve(new boolean[0][]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /** Пазл из потока линий; массивы приёмника переиспользуются, так что builder их копирует. */
+    private Crossword streamed(boolean[][] picture) {
+        Crossword.Builder b = Crossword.builder();
+        antiSolver.antiSolve(picture, new ClueSink() {
+            @Override
+            public void row(int[] clues, int from, int count) {
+                assertThat(b.columns()).isZero();
+                b.row(clues, from, count);
+            }
+
+            @Override
+            public void column(int[] clues, int from, int count) {
+                b.column(clues, from, count);
+            }
+        });
+        return b.build();
+    }
+
+    /** Подсказки прямым обходом по клеткам — как считал антирешатель до упаковки. */
+    private static void assertCluesOf(Crossword cw, boolean[][] picture) {
+        int h = picture.length, w = picture[0].length;
+        List<List<Integer>> rows = new ArrayList<>();
+        for (int r = 0; r < h; r++) {
+            final int row = r;
+            rows.add(runs(w, c -> picture[row][c]));
+        }
+        List<List<Integer>> columns = new ArrayList<>();
+        for (int c = 0; c < w; c++) {
+            final int col = c;
+            columns.add(runs(h, r -> picture[r][col]));
+        }
+        assertThat(cw.getRows()).isEqualTo(rows);
+        assertThat(cw.getColumns()).isEqualTo(columns);
+    }
+
+    private static List<Integer> runs(int length, IntPredicate filled) {
+        List<Integer> out = new ArrayList<>();
+        int block = 0;
+        for (int i = 0; i < length; i++) {
+            if (filled.test(i)) {
+                block++;
+            } else if (block > 0) {
+                out.add(block);
+                block = 0;
+            }
+        }
+        if (block > 0) out.add(block);
+        return out;
+    }
+}
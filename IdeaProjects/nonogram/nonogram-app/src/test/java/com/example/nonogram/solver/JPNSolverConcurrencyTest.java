@@ -0,0 +1,72 @@
+package com.example.nonogram.solver;
+
+import com.example.nonogram.core.model.Crossword;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static com.example.nonogram.PuzzleFixtures.builtin;
+import static com.example.nonogram.solver.SolverFixtures.grid;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JPNSolverConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 50;
+
+    private final JPNSolver solver = new JPNSolver();
+
+    @Test
+    void concurrentSolvesMatchSequentialResults() throws Exception {
+        assertConcurrentSolvesMatch(solver);
+    }
+
+    @Test
+    void sharedLineCacheUnderEvictionPressureKeepsResults() throws Exception {
+        // маленький кэш: потоки постоянно вытесняют записи друг друга
+        JPNSolver cached = new JPNSolver(1, Integer.MAX_VALUE, JPNSolver.DEFAULT_PROBE_BUDGET, new LineCache(32 * 1024));
+
+        assertConcurrentSolvesMatch(cached);
+
+        assertThat(cached.getLineCache().getHits()).isPositive();
+        assertThat(cached.getLineCache().getEvictions()).isPositive();
+    }
+
+    private void assertConcurrentSolvesMatch(JPNSolver shared) throws Exception {
+        List<Crossword> puzzles = puzzles();
+        List<boolean[][]> expected = new ArrayList<>();
+        for (Crossword cw : puzzles) {
+            expected.add(grid(solver.solve(cw)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS * ROUNDS; i++) {
+                int idx = i % puzzles.size();
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    boolean[][] got = grid(shared.solve(puzzles.get(idx)));
+                    return java.util.Arrays.deepEquals(got, expected.get(idx));
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> f : futures) {
+                assertThat(f.get(60, TimeUnit.SECONDS)).isTrue();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<Crossword> puzzles() throws Exception {
+        List<Crossword> out = new ArrayList<>();
+        for (String name : List.of("a-test-cross", "kon100", "fregat", "wine")) {
+            out.add(builtin(name));
+        }
+        return out;
+    }
+}
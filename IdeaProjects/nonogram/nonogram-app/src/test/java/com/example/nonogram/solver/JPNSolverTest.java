@@ -0,0 +1,252 @@
+package com.example.nonogram.solver;
+
+import com.example.nonogram.core.SolveLimits;
+import com.example.nonogram.core.SolveListener;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.SolveAllResult;
+import com.example.nonogram.core.model.SolveResult;
+import com.example.nonogram.core.model.SolveStatus;
+import com.example.nonogram.core.model.Solution;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.nonogram.PuzzleFixtures.assertSameClues;
+import static com.example.nonogram.PuzzleFixtures.builtin;
+import static com.example.nonogram.PuzzleFixtures.randomPicture;
+import static com.example.nonogram.solver.SolverFixtures.grid;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JPNSolverTest {
+
+    private final JPNSolver solver = new JPNSolver();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a-test-cross", "cat2", "fregat", "jelud32", "key60", "kon100", "wine"})
+    void solvesBuiltinPuzzle(String name) throws Exception {
+        Crossword cw = builtin(name);
+        SolveStats stats = new SolveStats();
+
+        Solution sol = solver.solve(cw, stats);
+
+        Crossword back = new JPNAntiSolver().antiSolve(grid(sol));
+        assertSameClues(back, cw);
+        assertThat(stats.getLinesProcessed()).isPositive();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a-test-cross", "cat2", "fregat", "jelud32", "key60", "kon100", "wine"})
+    void parallelSweepsMatchSequentialEngine(String name) throws Exception {
+        Crossword cw = builtin(name);
+        try (JPNSolver parallel = new JPNSolver(4, 0, JPNSolver.DEFAULT_PROBE_BUDGET)) {
+            assertThat(grid(parallel.solve(cw))).isDeepEqualTo(grid(solver.solve(cw)));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a-test-cross", "cat2", "fregat", "jelud32", "key60", "kon100", "wine"})
+    void lineCacheDoesNotChangeResult(String name) throws Exception {
+        Crossword cw = builtin(name);
+        JPNSolver cached = new JPNSolver(1, Integer.MAX_VALUE, JPNSolver.DEFAULT_PROBE_BUDGET, new LineCache(1 << 20));
+
+        boolean[][] first = grid(cached.solve(cw));
+        long missesAfterFirst = cached.getLineCache().getMisses();
+        boolean[][] second = grid(cached.solve(cw));
+
+        assertThat(first).isDeepEqualTo(grid(solver.solve(cw)));
+        assertThat(second).isDeepEqualTo(first);
+        assertThat(cached.getLineCache().getMisses()).isEqualTo(missesAfterFirst);
+    }
+
+    @Test
+    void probingFixesCellsBeforeBranching() throws Exception {
+        Crossword cw = builtin("fregat");
+
+        SolveStats withProbing = new SolveStats();
+        solver.solve(cw, withProbing);
+        SolveStats withoutProbing = new SolveStats();
+        new JPNSolver(1, Integer.MAX_VALUE, 0).solve(cw, withoutProbing);
+
+        assertThat(withProbing.getProbeFixedCells()).isPositive();
+        assertThat(withProbing.getNodes()).isZero();
+        assertThat(withoutProbing.getProbes()).isZero();
+        assertThat(withoutProbing.getNodes()).isPositive();
+    }
+
+    @Test
+    void searchSolvesRandomPictures() {
+        Random rnd = new Random(3);
+        for (int i = 0; i < 300; i++) {
+            int h = 5 + rnd.nextInt(16);
+            int w = 5 + rnd.nextInt(16);
+            Crossword cw = new JPNAntiSolver().antiSolve(randomPicture(rnd, h, w, 0.5));
+
+            Crossword back = new JPNAntiSolver().antiSolve(grid(solver.solve(cw)));
+
+            assertSameClues(back, cw);
+        }
+    }
+
+    @Test
+    void solvesLinesWiderThanOneWord() {
+        boolean[][] picture = new boolean[5][150];
+        for (int r = 0; r < 5; r++)
+            for (int c = r * 10; c < r * 10 + 100; c++)
+                picture[r][c] = true;
+        Crossword cw = new JPNAntiSolver().antiSolve(picture);
+
+        assertThat(grid(solver.solve(cw))).isDeepEqualTo(picture);
+    }
+
+    @Test
+    void enumerationFindsEveryPictureOfAmbiguousPuzzle() {
+        Crossword diagonal = new Crossword(List.of(List.of(1), List.of(1)), List.of(List.of(1), List.of(1)));
+
+        List<Solution> all = solver.solveAll(diagonal, 10);
+
+        assertThat(all).hasSize(2);
+        assertThat(grid(all.get(0))).isNotEqualTo(grid(all.get(1)));
+        assertThat(solver.solveAll(diagonal, 1)).hasSize(1);
+    }
+
+    @Test
+    void enumerationStopsAtLimitsAndSaysSo() throws Exception {
+        Crossword diagonal = new Crossword(List.of(List.of(1), List.of(1)), List.of(List.of(1), List.of(1)));
+
+        SolveAllResult budget = solver.solveAll(diagonal, 2, SolveLimits.NONE.withMaxNodes(1));
+        assertThat(budget.status()).isEqualTo(SolveStatus.PARTIAL);
+        assertThat(budget.solutions()).hasSize(1);
+
+        SolveAllResult cancelled = solver.solveAll(builtin("kon100"), 2, SolveLimits.NONE.withCancellation(() -> true));
+        assertThat(cancelled.isStopped()).isTrue();
+
+        assertThat(solver.solveAll(diagonal, 2, SolveLimits.NONE).status()).isEqualTo(SolveStatus.SOLVED);
+        assertThat(solver.solveAll(builtin("cat"), 2, SolveLimits.NONE).status()).isEqualTo(SolveStatus.UNSAT);
+    }
+
+    @Test
+    void unsatisfiablePuzzleHasNoSolutions() throws Exception {
+        assertThat(solver.solveAll(builtin("cat"), 2)).isEmpty();
+    }
+
+    @Test
+    void enumerationMatchesBruteForceCount() {
+        Random rnd = new Random(11);
+        for (int i = 0; i < 200; i++) {
+            Crossword cw = new JPNAntiSolver().antiSolve(randomPicture(rnd, 4, 4, 0.67));
+
+            List<Solution> all = solver.solveAll(cw, 1 << 16);
+
+            assertThat(all).as("puzzle #" + i).hasSize(bruteForceCount(cw));
+            assertThat(all.stream().map(s -> Arrays.deepToString(grid(s))).distinct()).hasSize(all.size());
+        }
+    }
+
+    /** Число сеток 4x4, подходящих к подсказкам, — полным перебором всех 2^16 вариантов. */
+    private static int bruteForceCount(Crossword cw) {
+        List<List<Integer>> clues = new ArrayList<>();      // подсказка для каждой 4-битной линии
+        for (int mask = 0; mask < 16; mask++) {
+            boolean[][] line = new boolean[1][4];
+            for (int i = 0; i < 4; i++) line[0][i] = (mask >>> i & 1) != 0;
+            clues.add(new JPNAntiSolver().antiSolve(line).getRows().get(0));
+        }
+        int count = 0;
+        for (int bits = 0; bits < 1 << 16; bits++) {
+            boolean ok = true;
+            for (int i = 0; i < 4 && ok; i++) {
+                int row = bits >>> (4 * i) & 0xF;
+                int col = 0;
+                for (int r = 0; r < 4; r++) col |= (bits >>> (4 * r + i) & 1) << r;
+                ok = clues.get(row).equals(cw.getRows().get(i)) && clues.get(col).equals(cw.getColumns().get(i));
+            }
+            if (ok) count++;
+        }
+        return count;
+    }
+
+    @Test
+    void limitedSolveReportsSolvedAndUnsat() throws Exception {
+        SolveResult solved = solver.solve(builtin("fregat"), SolveLimits.NONE.withTimeout(60_000));
+        SolveResult unsat = solver.solve(builtin("cat"), SolveLimits.NONE);
+
+        assertThat(solved.status()).isEqualTo(SolveStatus.SOLVED);
+        assertThat(solved.isComplete()).isTrue();
+        assertThat(unsat.status()).isEqualTo(SolveStatus.UNSAT);
+    }
+
+    @Test
+    void nodeBudgetStopsSearchKeepingOnlyProvenCells() {
+        JPNSolver noProbing = new JPNSolver(1, Integer.MAX_VALUE, 0);
+        Random rnd = new Random(5);
+        int stopped = 0;
+        for (int i = 0; i < 50; i++) {
+            boolean[][] picture = randomPicture(rnd, 20, 20, 0.5);
+            Crossword cw = new JPNAntiSolver().antiSolve(picture);
+
+            SolveResult result = noProbing.solve(cw, SolveLimits.NONE.withMaxNodes(1));
+
+            if (result.status() == SolveStatus.SOLVED) continue;
+            stopped++;
+            assertThat(result.status()).isEqualTo(SolveStatus.PARTIAL);
+            assertThat(result.isComplete()).isFalse();
+            // доказанные клетки верны в любом решении, в том числе в исходной картинке
+            for (int r = 0; r < 20; r++)
+                for (int c = 0; c < 20; c++)
+                    if (result.isKnown(r, c)) assertThat(result.solution().isFilled(r, c)).isEqualTo(picture[r][c]);
+        }
+        assertThat(stopped).isPositive();
+    }
+
+    @Test
+    void deadlineAndCancellationStopLargeSolve() {
+        Crossword cw = new JPNAntiSolver().antiSolve(randomPicture(new Random(7), 200, 200, 0.8));
+
+        long t0 = System.nanoTime();
+        SolveResult timedOut = solver.solve(cw, SolveLimits.NONE.withTimeout(5));
+        long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+        SolveResult cancelled = solver.solve(cw, SolveLimits.NONE.withCancellation(() -> true));
+
+        assertThat(timedOut.status()).isEqualTo(SolveStatus.TIMEOUT);
+        assertThat(elapsedMs).isLessThan(2_000);
+        assertThat(cancelled.status()).isEqualTo(SolveStatus.PARTIAL);
+    }
+
+    @Test
+    void listenerReceivesEachProvenCellOnce() {
+        Crossword cw = new JPNAntiSolver().antiSolve(randomPicture(new Random(9), 80, 80, 0.8));
+        int[] reportedValue = new int[80 * 80];        // 0 — не сообщалась, 1 — FILLED, 2 — BLANK
+        int[] calls = new int[1];
+        int[] lastKnown = new int[1];
+        SolveListener listener = new SolveListener() {
+            @Override
+            public long intervalNanos() {
+                return 0;
+            }
+
+            @Override
+            public void cellsResolved(int[] filled, int[] blank, int known) {
+                calls[0]++;
+                for (int cell : filled) assertThat(reportedValue[cell]).isZero();
+                for (int cell : blank) assertThat(reportedValue[cell]).isZero();
+                for (int cell : filled) reportedValue[cell] = 1;
+                for (int cell : blank) reportedValue[cell] = 2;
+                assertThat(known).isGreaterThan(lastKnown[0]);
+                lastKnown[0] = known;
+            }
+        };
+
+        SolveResult result = solver.solve(cw, SolveLimits.NONE, listener);
+
+        assertThat(result.status()).isEqualTo(SolveStatus.SOLVED);
+        assertThat(calls[0]).isPositive();
+        for (int cell = 0; cell < reportedValue.length; cell++) {
+            if (reportedValue[cell] == 0) continue;
+            assertThat(result.solution().isFilled(cell / 80, cell % 80)).isEqualTo(reportedValue[cell] == 1);
+        }
+    }
+}
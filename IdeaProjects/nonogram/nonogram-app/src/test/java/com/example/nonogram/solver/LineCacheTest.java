@@ -0,0 +1,78 @@
+package com.example.nonogram.solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LineCacheTest {
+
+    @Test
+    void returnsStoredResultAndCountsHits() {
+        LineCache cache = new LineCache(1 << 20);
+        LineCache.Key key = new LineCache.Key();
+        long[] filled = {0b0010};
+        long[] blank = {0};
+        key.set(new int[]{3}, filled, blank, 4);
+
+        assertThat(cache.lookup(key, filled, blank)).isEqualTo(LineCache.MISS);
+        cache.put(key, new long[]{0b0110}, new long[]{0}, true);
+
+        long[] outFilled = new long[1];
+        long[] outBlank = new long[1];
+        assertThat(cache.lookup(key, outFilled, outBlank)).isEqualTo(LineCache.SOLVED);
+        assertThat(outFilled[0]).isEqualTo(0b0110);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void keyCoversCluesLengthAndState() {
+        LineCache cache = new LineCache(1 << 20);
+        LineCache.Key key = new LineCache.Key();
+        key.set(new int[]{1, 1}, new long[]{0}, new long[]{0}, 3);
+        cache.put(key, new long[]{0b101}, new long[]{0b010}, true);
+
+        key.set(new int[]{2}, new long[]{0}, new long[]{0}, 3);
+        assertThat(cache.lookup(key, new long[1], new long[1])).isEqualTo(LineCache.MISS);
+        key.set(new int[]{1, 1}, new long[]{0}, new long[]{0}, 4);
+        assertThat(cache.lookup(key, new long[1], new long[1])).isEqualTo(LineCache.MISS);
+        key.set(new int[]{1, 1}, new long[]{0b1}, new long[]{0}, 3);
+        assertThat(cache.lookup(key, new long[1], new long[1])).isEqualTo(LineCache.MISS);
+
+        key.set(new int[]{1, 1}, new long[]{0}, new long[]{0}, 3);
+        assertThat(cache.lookup(key, new long[1], new long[1])).isEqualTo(LineCache.SOLVED);
+    }
+
+    @Test
+    void remembersContradictions() {
+        LineCache cache = new LineCache(1 << 20);
+        LineCache.Key key = new LineCache.Key();
+        key.set(new int[]{5}, new long[]{0}, new long[]{0}, 3);
+        cache.put(key, null, null, false);
+
+        assertThat(cache.lookup(key, new long[1], new long[1])).isEqualTo(LineCache.CONTRADICTION);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedToStayUnderCap() {
+        LineCache cache = new LineCache(64 * 1024);
+        LineCache.Key key = new LineCache.Key();
+        for (int i = 0; i < 10_000; i++) {
+            key.set(new int[]{i}, new long[]{i}, new long[]{0}, 64);
+            cache.put(key, new long[]{i}, new long[]{0}, true);
+        }
+
+        assertThat(cache.getBytes()).isLessThanOrEqualTo(cache.getMaxBytes());
+        assertThat(cache.getEvictions()).isEqualTo(10_000 - cache.getEntries());
+        key.set(new int[]{9_999}, new long[]{9_999}, new long[]{0}, 64);
+        assertThat(cache.lookup(key, new long[1], new long[1])).isEqualTo(LineCache.SOLVED);
+        key.set(new int[]{0}, new long[]{0}, new long[]{0}, 64);
+        assertThat(cache.lookup(key, new long[1], new long[1])).isEqualTo(LineCache.MISS);
+    }
+
+    @Test
+    void rejectsNonPositiveCap() {
+        assertThatThrownBy(() -> new LineCache(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.nonogram.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LineSolverTest {
+
+    private final LineSolver solver = new LineSolver();
+
+    @Test
+    void overlapAndEmptyClue() {
+        byte[] line = new byte[10];
+        assertThat(solver.solve(new int[]{8}, line, 10)).isTrue();
+        assertThat(line).containsExactly(0, 0, 1, 1, 1, 1, 1, 1, 0, 0);
+
+        byte[] empty = new byte[4];
+        assertThat(solver.solve(new int[0], empty, 4)).isTrue();
+        assertThat(empty).containsExactly(2, 2, 2, 2);
+    }
+
+    @Test
+    void multiWordLine() {
+        byte[] line = new byte[130];
+        line[70] = 2;
+        assertThat(solver.solve(new int[]{60}, line, 130)).isTrue();
+        for (int i = 0; i < 130; i++) {
+            byte expected = i >= 70 ? (byte) 2 : i >= 10 && i < 60 ? (byte) 1 : (byte) 0;
+            assertThat(line[i]).as("cell " + i).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void contradictionLeavesLineUntouched() {
+        byte[] line = {1, 2, 1, 0};
+        byte[] copy = line.clone();
+        assertThat(solver.solve(new int[]{3}, line, 4)).isFalse();
+        assertThat(line).isEqualTo(copy);
+    }
+
+    @Test
+    void matchesEnumerationOnRandomLines() {
+        Random rnd = new Random(42);
+        for (int iter = 0; iter < 20_000; iter++) {
+            int n = 1 + rnd.nextInt(14);
+            int[] clues = randomClues(rnd, n);
+            byte[] line = new byte[n];
+            for (int i = 0; i < n; i++) {
+                int r = rnd.nextInt(10);
+                line[i] = (byte) (r < 6 ? 0 : r < 8 ? 1 : 2);
+            }
+
+            byte[] expected = EnumeratingLineSolver.solve(clues, line);
+            byte[] actual = line.clone();
+            boolean ok = solver.solve(clues, actual, n);
+
+            String msg = Arrays.toString(clues) + " " + Arrays.toString(line);
+            assertThat(ok).as(msg).isEqualTo(expected != null);
+            if (ok) assertThat(actual).as(msg).isEqualTo(expected);
+        }
+    }
+
+    private static int[] randomClues(Random rnd, int n) {
+        int[] buf = new int[n];
+        int k = 0, pos = 0;
+        while (pos < n && rnd.nextInt(3) > 0) {
+            int len = 1 + rnd.nextInt(Math.max(1, Math.min(5, n - pos)));
+            if (pos + len > n) break;
+            buf[k++] = len;
+            pos += len + 1;
+        }
+        return Arrays.copyOf(buf, k);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.nonogram.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongHeapTest {
+
+    @Test
+    void pollsInSameOrderAsReversePriorityQueue() {
+        Random rnd = new Random(3);
+        SolveContext.LongHeap heap = new SolveContext.LongHeap();
+        PriorityQueue<Long> reference = new PriorityQueue<>(Comparator.reverseOrder());
+
+        for (int step = 0; step < 20_000; step++) {
+            if (reference.isEmpty() || rnd.nextInt(3) > 0) {
+                long v = ((long) rnd.nextInt(16) << 32) | rnd.nextInt(300);
+                heap.add(v);
+                reference.add(v);
+            } else {
+                assertThat(heap.poll()).isEqualTo(reference.poll());
+            }
+            assertThat(heap.isEmpty()).isEqualTo(reference.isEmpty());
+        }
+        while (!reference.isEmpty()) assertThat(heap.poll()).isEqualTo(reference.poll());
+
+        heap.add(7);
+        heap.clear();
+        assertThat(heap.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.nonogram.solver;
+
+import com.example.nonogram.core.model.Solution;
+
+/** Общие заготовки тестов решателя. */
+final class SolverFixtures {
+
+    private SolverFixtures() {}
+
+    /** Решение как {@code boolean[][]} — для сравнения через {@code isDeepEqualTo}. */
+    static boolean[][] grid(Solution s) {
+        boolean[][] g = new boolean[s.height()][s.width()];
+        for (int r = 0; r < s.height(); r++)
+            for (int c = 0; c < s.width(); c++)
+                g[r][c] = s.isFilled(r, c);
+        return g;
+    }
+}
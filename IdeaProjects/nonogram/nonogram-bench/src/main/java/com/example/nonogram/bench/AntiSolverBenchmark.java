@@ -0,0 +1,47 @@
+package com.example.nonogram.bench;
+
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.Solution;
+import com.example.nonogram.solver.JPNAntiSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JPNAntiSolver#antiSolve} на больших случайных картинках разной плотности:
+ * по {@code boolean[][]} и по битам {@link Solution}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AntiSolverBenchmark {
+
+    @Param({"500", "1000", "2000", "4000"})
+    public int size;
+
+    @Param({"0.5", "0.8"})
+    public double density;
+
+    private final JPNAntiSolver antiSolver = new JPNAntiSolver();
+    private boolean[][] picture;
+    private Solution solution;
+
+    @Setup
+    public void setUp() {
+        picture = Puzzles.randomPicture(11, size, size, density);
+        solution = Solution.of(antiSolver.antiSolve(picture), picture);
+    }
+
+    @Benchmark
+    public Crossword antiSolve() {
+        return antiSolver.antiSolve(picture);
+    }
+
+    @Benchmark
+    public Crossword antiSolveBits() {
+        return antiSolver.antiSolve(solution);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.nonogram.bench;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Точка входа {@code benchmarks.jar}: обычный запуск JMH, но по умолчанию с {@code -prof gc}
+ * (выделения на операцию) и результатами в {@code jmh-result.json} для сравнения прогонов.
+ * <pre>
+ * mvn -pl nonogram-bench -am package -DskipTests
+ * java -jar nonogram-bench/target/benchmarks.jar                    # всё
+ * java -jar nonogram-bench/target/benchmarks.jar Solver -p puzzle=kon100 -t 4
+ * java -jar nonogram-bench/target/benchmarks.jar Reader -rf csv -rff readers.csv
+ * </pre>
+ * Остальные опции — как у JMH ({@code -h}).
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams()
+                || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        boolean gc = cli.getProfilers().stream()
+                .anyMatch(p -> p.getKlass().equals("gc") || p.getKlass().equals(GCProfiler.class.getName()));
+        if (!gc) options.addProfiler(GCProfiler.class);
+        if (!cli.getResultFormat().hasValue()) options.resultFormat(ResultFormatType.JSON);
+        new Runner(options.build()).run();
+    }
+}
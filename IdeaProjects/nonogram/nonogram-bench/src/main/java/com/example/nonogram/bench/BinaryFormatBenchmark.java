@@ -0,0 +1,87 @@
+package com.example.nonogram.bench;
+
+import com.example.nonogram.adapters.FastJpnXmlReader;
+import com.example.nonogram.core.io.binary.JpnLibrary;
+import com.example.nonogram.core.io.binary.JpnLibraryWriter;
+import com.example.nonogram.core.io.binary.VarintJpnBinaryReader;
+import com.example.nonogram.core.io.binary.VarintJpnBinaryWriter;
+import com.example.nonogram.core.model.Crossword;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор одного пазла: самый быстрый JPNXML-читатель против двоичного формата из памяти
+ * и из отображённой в память библиотеки. {@code libraryOpen} — цена открытия библиотеки
+ * из {@value #LIBRARY_SIZE} пазлов (только хвост и индекс).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    static final int LIBRARY_SIZE = 1000;
+
+    @Param({"kon100", "gen-500"})
+    public String puzzle;
+
+    private final FastJpnXmlReader xmlReader = new FastJpnXmlReader();
+    private final VarintJpnBinaryReader binaryReader = new VarintJpnBinaryReader();
+    private byte[] xml;
+    private byte[] binary;
+    private Path file;
+    private JpnLibrary library;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        xml = Puzzles.bytesByName(puzzle);
+        Crossword cw = Puzzles.byName(puzzle);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new VarintJpnBinaryWriter().write(cw, out);
+        binary = out.toByteArray();
+
+        file = Files.createTempFile("bench", ".jpnl");
+        try (JpnLibraryWriter writer = JpnLibraryWriter.create(file)) {
+            for (int i = 0; i < LIBRARY_SIZE; i++) writer.add(cw);
+        }
+        library = JpnLibrary.open(file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        library.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Crossword readXmlFast() {
+        return xmlReader.read(new ByteArrayInputStream(xml));
+    }
+
+    @Benchmark
+    public Crossword readBinary() {
+        return binaryReader.read(new ByteArrayInputStream(binary));
+    }
+
+    @Benchmark
+    public Crossword libraryGet() {
+        next = next + 1 == LIBRARY_SIZE ? 0 : next + 1;
+        return library.get(next);
+    }
+
+    @Benchmark
+    public int libraryOpen() throws IOException {
+        try (JpnLibrary lib = JpnLibrary.open(file)) {
+            return lib.size();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.nonogram.bench;
+
+import com.example.nonogram.adapters.DirectJpnXmlWriter;
+import com.example.nonogram.core.io.JpnXmlLineWriter;
+import com.example.nonogram.solver.JPNAntiSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Картинка → JPNXML: прежний путь ({@code Crossword}, документ целиком в памяти, затем
+ * копия в ответ) против потокового, где строки пишутся по мере вычисления. Смотреть
+ * вместе с {@code -prof gc}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExportBenchmark {
+
+    @Param({"500", "2000", "4000"})
+    public int size;
+
+    private final JPNAntiSolver antiSolver = new JPNAntiSolver();
+    private final DirectJpnXmlWriter writer = new DirectJpnXmlWriter();
+    private final OutputStream response = OutputStream.nullOutputStream();
+    private boolean[][] picture;
+
+    @Setup
+    public void setUp() {
+        picture = Puzzles.randomPicture(11, size, size, 0.5);
+    }
+
+    @Benchmark
+    public void buffered() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writer.write(antiSolver.antiSolve(picture), bytes);
+        response.write(bytes.toByteArray());
+    }
+
+    @Benchmark
+    public void streamed() {
+        JpnXmlLineWriter lines = writer.open(response);
+        antiSolver.antiSolve(picture, lines);
+        lines.close();
+    }
+}
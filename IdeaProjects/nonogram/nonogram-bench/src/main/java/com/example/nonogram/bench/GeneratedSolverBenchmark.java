@@ -0,0 +1,48 @@
+package com.example.nonogram.bench;
+
+import com.example.nonogram.core.SolveLimits;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.SolveResult;
+import com.example.nonogram.solver.JPNSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JPNSolver#solve} на сгенерированных квадратных пазлах 10..500 (плотность 0.8,
+ * фиксированное зерно) при разной параллельности волн линий. Параллельный режим
+ * включается с любого размера, чтобы на малых пазлах была видна его цена.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratedSolverBenchmark {
+
+    @Param({"10", "25", "50", "100", "200", "500"})
+    public int size;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private JPNSolver solver;
+    private Crossword crossword;
+
+    @Setup
+    public void setUp() {
+        crossword = Puzzles.random(7, size, size, 0.8);
+        solver = new JPNSolver(parallelism, 0, JPNSolver.DEFAULT_PROBE_BUDGET);
+    }
+
+    @TearDown
+    public void tearDown() {
+        solver.close();
+    }
+
+    @Benchmark
+    public SolveResult solve() {
+        return solver.solve(crossword, SolveLimits.NONE);
+    }
+}
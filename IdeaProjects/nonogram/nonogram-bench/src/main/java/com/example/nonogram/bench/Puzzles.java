@@ -0,0 +1,68 @@
+package com.example.nonogram.bench;
+
+import com.example.nonogram.adapters.SaxJpnXmlReader;
+import com.example.nonogram.adapters.SaxJpnXmlWriter;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.solver.JPNAntiSolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+/** Входные данные бенчмарков: встроенные пазлы из nonogram-app и сгенерированные картинки. */
+final class Puzzles {
+
+    /** Префикс сгенерированного пазла в параметрах: {@code gen-500} — 500x500. */
+    static final String GENERATED = "gen-";
+
+    private Puzzles() {}
+
+    /** Встроенный пазл по имени или сгенерированный ({@code gen-N}, плотность 0.5). */
+    static Crossword byName(String name) {
+        if (name.startsWith(GENERATED)) {
+            int size = Integer.parseInt(name.substring(GENERATED.length()));
+            return random(7, size, size, 0.5);
+        }
+        return builtin(name);
+    }
+
+    /** JPNXML-байты пазла по имени, как в {@link #byName}. */
+    static byte[] bytesByName(String name) {
+        if (!name.startsWith(GENERATED)) return builtinBytes(name);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SaxJpnXmlWriter().write(byName(name), out);
+        return out.toByteArray();
+    }
+
+    /** Байты встроенного пазла {@code /puzzles/<name>.JPNXML}. */
+    static byte[] builtinBytes(String name) {
+        try (InputStream in = Puzzles.class.getResourceAsStream("/puzzles/" + name + ".JPNXML")) {
+            if (in == null) throw new IllegalArgumentException("Builtin puzzle not found: " + name);
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Crossword builtin(String name) {
+        return new SaxJpnXmlReader().read(new ByteArrayInputStream(builtinBytes(name)));
+    }
+
+    /** Случайная картинка с долей закрашенных клеток {@code density}; одинаковая для одного {@code seed}. */
+    static boolean[][] randomPicture(long seed, int height, int width, double density) {
+        Random rnd = new Random(seed);
+        boolean[][] picture = new boolean[height][width];
+        for (int r = 0; r < height; r++)
+            for (int c = 0; c < width; c++)
+                picture[r][c] = rnd.nextDouble() < density;
+        return picture;
+    }
+
+    /** Пазл по случайной картинке — решаемый, но не обязательно однозначно. */
+    static Crossword random(long seed, int height, int width, double density) {
+        return new JPNAntiSolver().antiSolve(randomPicture(seed, height, width, density));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.nonogram.bench;
+
+import com.example.nonogram.core.io.JpnXmlReader;
+import com.example.nonogram.core.model.Crossword;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/** Разбор JPNXML каждой реализацией {@link JpnXmlReader} из байтов в памяти. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReaderBenchmark {
+
+    @Param({"dom", "sax", "stax", "jackson", "fast"})
+    public String reader;
+
+    @Param({"kon100", "key60", "gen-500"})
+    public String puzzle;
+
+    private JpnXmlReader impl;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        impl = XmlFormats.reader(reader);
+        bytes = Puzzles.bytesByName(puzzle);
+    }
+
+    @Benchmark
+    public Crossword read() {
+        return impl.read(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.nonogram.bench;
+
+import com.example.nonogram.core.SolveLimits;
+import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.SolveResult;
+import com.example.nonogram.solver.JPNSolver;
+import com.example.nonogram.solver.LineCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JPNSolver#solve} на каждом встроенном пазле (или {@code gen-N}), с общим {@link LineCache} и без.
+ * Решатель один на бенчмарк, так что {@code -t N} меряет пропускную способность
+ * общего решателя из N потоков (как в сервисе).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"a-test-cross", "cat", "cat2", "fregat", "jelud32", "key60", "kon100", "wine"})
+    public String puzzle;
+
+    /** Размер общего кэша линий в МБ; 0 — без кэша. */
+    @Param({"0", "16"})
+    public int lineCacheMb;
+
+    private JPNSolver solver;
+    private Crossword crossword;
+
+    @Setup
+    public void setUp() {
+        crossword = Puzzles.byName(puzzle);
+        solver = lineCacheMb > 0
+                ? new JPNSolver(1, Integer.MAX_VALUE, JPNSolver.DEFAULT_PROBE_BUDGET, new LineCache((long) lineCacheMb << 20))
+                : new JPNSolver();
+    }
+
+    @TearDown
+    public void tearDown() {
+        solver.close();
+    }
+
+    @Benchmark
+    public SolveResult solve() {
+        // через SolveResult: cat неразрешим, а результат всё равно должен потребиться
+        return solver.solve(crossword, SolveLimits.NONE);
+    }
+}
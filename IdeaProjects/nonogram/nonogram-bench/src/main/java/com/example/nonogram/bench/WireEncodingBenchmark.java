@@ -0,0 +1,75 @@
+package com.example.nonogram.bench;
+
+import com.example.nonogram.api.GridOctetStreamConverter;
+import com.example.nonogram.api.Mapper;
+import com.example.nonogram.api.dto.GridBitmapStream;
+import com.example.nonogram.api.dto.GridEncoding;
+import com.example.nonogram.api.dto.SolveResultDto;
+import com.example.nonogram.core.model.Solution;
+import com.example.nonogram.core.model.SolveResult;
+import com.example.nonogram.solver.JPNAntiSolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ответ {@code /api/solve} в каждой кодировке сетки: время сериализации и размер тела.
+ * Размер — счётчик {@code payloadBytes} в отчёте (байт на ответ, не сумма). Вариант
+ * {@code octet} пишет то же, что {@link GridOctetStreamConverter}, без HTTP.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireEncodingBenchmark {
+
+    @Param({"json", "bits", "rle", "octet"})
+    public String encoding;
+
+    @Param({"100", "500", "2000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private SolveResultDto dto;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Payload {
+        public long payloadBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        boolean[][] picture = Puzzles.randomPicture(3, size, size, 0.5);
+        Solution solution = Solution.of(new JPNAntiSolver().antiSolve(picture), picture);
+        dto = Mapper.toDto(SolveResult.solved(solution));
+        GridEncoding grid = switch (encoding) {
+            case "bits" -> GridEncoding.BITS;
+            case "rle" -> GridEncoding.RLE;
+            default -> GridEncoding.BOOLEANS;
+        };
+        writer = new ObjectMapper().writerFor(SolveResultDto.class).withAttribute(GridEncoding.class, grid);
+    }
+
+    @Benchmark
+    public int serialize(Payload payload) throws IOException {
+        out.reset();
+        if (encoding.equals("octet")) {
+            try (InputStream in = new GridBitmapStream(dto.filled())) {
+                in.transferTo(out);
+            }
+        } else {
+            writer.writeValue(out, dto);
+        }
+        payload.payloadBytes = out.size();
+        return out.size();
+    }
+}
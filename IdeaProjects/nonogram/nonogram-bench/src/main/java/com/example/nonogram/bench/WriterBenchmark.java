@@ -0,0 +1,44 @@
+package com.example.nonogram.bench;
+
+import com.example.nonogram.core.io.JpnXmlWriter;
+import com.example.nonogram.core.model.Crossword;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись JPNXML каждой реализацией {@link JpnXmlWriter}. Буфер вывода переиспользуется,
+ * так что {@code -prof gc} показывает выделения самого писателя.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriterBenchmark {
+
+    @Param({"dom", "sax", "stax", "direct"})
+    public String writer;
+
+    @Param({"kon100", "key60", "gen-500"})
+    public String puzzle;
+
+    private JpnXmlWriter impl;
+    private Crossword crossword;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setUp() {
+        impl = XmlFormats.writer(writer);
+        crossword = Puzzles.byName(puzzle);
+    }
+
+    @Benchmark
+    public int write() {
+        out.reset();
+        impl.write(crossword, out);
+        return out.size();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.nonogram.bench;
+
+import com.example.nonogram.adapters.DirectJpnXmlWriter;
+import com.example.nonogram.adapters.DomJpnXmlReader;
+import com.example.nonogram.adapters.DomJpnXmlWriter;
+import com.example.nonogram.adapters.FastJpnXmlReader;
+import com.example.nonogram.adapters.SaxJpnXmlReader;
+import com.example.nonogram.adapters.SaxJpnXmlWriter;
+import com.example.nonogram.adapters.StaxJpnXmlReader;
+import com.example.nonogram.adapters.StaxJpnXmlWriter;
+import com.example.nonogram.adapters.reader.JacksonJpnXmlReader;
+import com.example.nonogram.core.io.JpnXmlReader;
+import com.example.nonogram.core.io.JpnXmlWriter;
+
+/** Реализации чтения и записи JPNXML по именам, как в {@code nonogram.io.reader/writer}. */
+final class XmlFormats {
+
+    private XmlFormats() {}
+
+    static JpnXmlReader reader(String name) {
+        return switch (name) {
+            case "dom" -> new DomJpnXmlReader();
+            case "sax" -> new SaxJpnXmlReader();
+            case "stax" -> new StaxJpnXmlReader();
+            case "fast" -> new FastJpnXmlReader();
+            case "jackson" -> new JacksonJpnXmlReader();
+            default -> throw new IllegalArgumentException("Unknown reader: " + name);
+        };
+    }
+
+    static JpnXmlWriter writer(String name) {
+        return switch (name) {
+            case "dom" -> new DomJpnXmlWriter();
+            case "sax" -> new SaxJpnXmlWriter();
+            case "stax" -> new StaxJpnXmlWriter();
+            case "direct" -> new DirectJpnXmlWriter();
+            default -> throw new IllegalArgumentException("Unknown writer: " + name);
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.nonogram.bench;
+
+import com.example.nonogram.core.io.JpnXmlReader;
+import com.example.nonogram.core.io.JpnXmlWriter;
+import com.example.nonogram.core.model.Crossword;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цена настройки JAXP на вызов: {@code *Fresh} создаёт адаптер (а с ним фабрики) на каждый
+ * вызов — так работали адаптеры раньше, {@code *Reused} берёт один адаптер на всё время.
+ * Маленький пазл, чтобы разница не тонула в самом разборе.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlSetupBenchmark {
+
+    @Param({"dom", "sax", "stax"})
+    public String format;
+
+    @Param({"a-test-cross"})
+    public String puzzle;
+
+    private byte[] bytes;
+    private Crossword crossword;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 16);
+
+    private JpnXmlReader reader;
+    private JpnXmlWriter writer;
+
+    @Setup
+    public void setUp() {
+        bytes = Puzzles.bytesByName(puzzle);
+        crossword = Puzzles.byName(puzzle);
+        reader = XmlFormats.reader(format);
+        writer = XmlFormats.writer(format);
+    }
+
+    @Benchmark
+    public Crossword readFresh() {
+        return XmlFormats.reader(format).read(new ByteArrayInputStream(bytes));
+    }
+
+    @Benchmark
+    public Crossword readReused() {
+        return reader.read(new ByteArrayInputStream(bytes));
+    }
+
+    @Benchmark
+    public int writeFresh() {
+        out.reset();
+        XmlFormats.writer(format).write(crossword, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int writeReused() {
+        out.reset();
+        writer.write(crossword, out);
+        return out.size();
+    }
+}
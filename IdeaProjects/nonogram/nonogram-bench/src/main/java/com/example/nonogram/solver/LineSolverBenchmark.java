@@ -0,0 +1,73 @@
+package com.example.nonogram.solver;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LineSolver} против перебора раскладок ({@link EnumeratingLineSolver} из тестов
+ * nonogram-app) на пустых линиях с {@code max(2, length / 25)} блоками по 1..4 клетки —
+ * худший случай для перебора. Класс лежит в пакете решателя ради package-private
+ * {@link LineSolver}. Перебор меряется только на длинах, где раскладок не больше тысяч:
+ * на 100 их уже миллионы.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineSolverBenchmark {
+
+    @State(Scope.Thread)
+    public static class DpLine {
+        @Param({"20", "50", "100", "200", "500", "1000"})
+        public int length;
+
+        final LineSolver solver = new LineSolver();
+        int[] clues;
+        byte[] line;
+
+        @Setup
+        public void setUp() {
+            clues = clues(length);
+            line = new byte[length];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class EnumeratedLine {
+        @Param({"20", "50"})
+        public int length;
+
+        int[] clues;
+        byte[] line;
+
+        @Setup
+        public void setUp() {
+            clues = clues(length);
+            line = new byte[length];
+        }
+    }
+
+    @Benchmark
+    public byte[] dp(DpLine s) {
+        Arrays.fill(s.line, LineSolver.UNKNOWN);     // solve уточняет линию на месте
+        s.solver.solve(s.clues, s.line, s.length);
+        return s.line;
+    }
+
+    @Benchmark
+    public byte[] enumeration(EnumeratedLine s) {
+        return EnumeratingLineSolver.solve(s.clues, s.line);
+    }
+
+    /** Одни и те же подсказки для обоих методов: зерно — длина линии. */
+    static int[] clues(int length) {
+        Random rnd = new Random(length);
+        int[] clues = new int[Math.max(2, length / 25)];
+        for (int i = 0; i < clues.length; i++) clues[i] = 1 + rnd.nextInt(4);
+        return clues;
+    }
+}
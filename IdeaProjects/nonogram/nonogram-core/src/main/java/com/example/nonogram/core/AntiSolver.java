@@ -1,7 +1,46 @@
 package com.example.nonogram.core;
 
 import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.Solution;
 
 public interface AntiSolver {
     Crossword antiSolve(boolean[][] filled);
+
+    /** Подсказки по сетке решения; реализации читают биты решения напрямую. */
+    default Crossword antiSolve(Solution solution) {
+        boolean[][] filled = new boolean[solution.height()][solution.width()];
+        for (int r = 0; r < filled.length; r++)
+            for (int c = 0; c < filled[r].length; c++)
+                filled[r][c] = solution.isFilled(r, c);
+        return antiSolve(filled);
+    }
+
+    /**
+     * Подсказки сразу в {@code out}, без {@link Crossword}: реализации отдают строку, как
+     * только она посчитана. Сетка проверяется до первой отданной линии.
+     */
+    default void antiSolve(boolean[][] filled, ClueSink out) {
+        Crossword cw = antiSolve(filled);
+        for (int r = 0; r < cw.height(); r++) {
+            int[] clues = cw.copyRowClues(r);
+            out.row(clues, 0, clues.length);
+        }
+        for (int c = 0; c < cw.width(); c++) {
+            int[] clues = cw.copyColumnClues(c);
+            out.column(clues, 0, clues.length);
+        }
+    }
+
+    /** Проверка картинки: непустая, прямоугольная, ненулевой ширины. */
+    static void requireRectangular(boolean[][] filled) {
+        if (filled == null || filled.length == 0)
+            throw new IllegalArgumentException("Grid must be non-empty");
+        int w = filled[0] == null ? 0 : filled[0].length;
+        if (w == 0)
+            throw new IllegalArgumentException("Grid width must be > 0");
+        for (int r = 1; r < filled.length; r++) {
+            if (filled[r] == null || filled[r].length != w)
+                throw new IllegalArgumentException("Grid must be rectangular");
+        }
+    }
 }
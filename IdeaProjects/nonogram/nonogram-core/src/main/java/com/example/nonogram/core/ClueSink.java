@@ -0,0 +1,11 @@
+package com.example.nonogram.core;
+
+/**
+ * Приёмник подсказок по линиям: все строки по порядку, затем все столбцы. Массивы не
+ * сохраняются — вызывающий может переиспользовать их сразу после вызова.
+ */
+public interface ClueSink {
+    void row(int[] clues, int from, int count);
+
+    void column(int[] clues, int from, int count);
+}
@@ -0,0 +1,37 @@
+package com.example.nonogram.core;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Ограничения одного решения. Решатель проверяет их кооперативно — в циклах пропагации и
+ * поиска — и, упёршись в любое, возвращает то, что успел доказать.
+ *
+ * @param timeoutMillis сколько можно решать, от начала вызова; 0 — без ограничения
+ * @param maxNodes      сколько догадок может сделать поиск; 0 — без ограничения
+ * @param cancelled     флаг отмены; {@code null} — отменить нельзя
+ */
+public record SolveLimits(long timeoutMillis, long maxNodes, BooleanSupplier cancelled) {
+
+    public static final SolveLimits NONE = new SolveLimits(0, 0, null);
+
+    public SolveLimits {
+        if (timeoutMillis < 0) throw new IllegalArgumentException("timeoutMillis must be >= 0");
+        if (maxNodes < 0) throw new IllegalArgumentException("maxNodes must be >= 0");
+    }
+
+    public SolveLimits withTimeout(long timeoutMillis) {
+        return new SolveLimits(timeoutMillis, maxNodes, cancelled);
+    }
+
+    public SolveLimits withMaxNodes(long maxNodes) {
+        return new SolveLimits(timeoutMillis, maxNodes, cancelled);
+    }
+
+    public SolveLimits withCancellation(BooleanSupplier cancelled) {
+        return new SolveLimits(timeoutMillis, maxNodes, cancelled);
+    }
+
+    public boolean isCancelled() {
+        return cancelled != null && cancelled.getAsBoolean();
+    }
+}
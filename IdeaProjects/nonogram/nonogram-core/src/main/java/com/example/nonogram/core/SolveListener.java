@@ -0,0 +1,24 @@
+package com.example.nonogram.core;
+
+/**
+ * Наблюдатель за ходом решения. Решатель сообщает только доказанные клетки (без догадок
+ * поиска) и не чаще, чем раз в {@link #intervalNanos()}; без наблюдателя проверка сводится
+ * к сравнению с {@code null}.
+ */
+public interface SolveListener {
+
+    /** Минимальный промежуток между вызовами {@link #cellsResolved}. */
+    default long intervalNanos() {
+        return 100_000_000L;
+    }
+
+    /**
+     * Клетки, выведенные с прошлого вызова; индекс клетки — {@code r * width + c}.
+     * Массивы принадлежат слушателю.
+     *
+     * @param filled индексы новых закрашенных клеток
+     * @param blank  индексы новых пустых клеток
+     * @param known  сколько клеток известно всего
+     */
+    void cellsResolved(int[] filled, int[] blank, int known);
+}
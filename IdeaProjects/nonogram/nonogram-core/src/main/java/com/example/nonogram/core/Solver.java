@@ -1,8 +1,41 @@
 package com.example.nonogram.core;
 
 import com.example.nonogram.core.model.Crossword;
+import com.example.nonogram.core.model.SolveAllResult;
+import com.example.nonogram.core.model.SolveResult;
 import com.example.nonogram.core.model.Solution;
 
+import java.util.List;
+
 public interface Solver {
     Solution solve(Crossword crossword);
+
+    /**
+     * Решение с дедлайном, бюджетом узлов и отменой из {@code limits}. Упёршись в ограничение,
+     * возвращает {@link com.example.nonogram.core.model.SolveStatus#TIMEOUT} или
+     * {@link com.example.nonogram.core.model.SolveStatus#PARTIAL} с уже доказанными клетками.
+     */
+    default SolveResult solve(Crossword crossword, SolveLimits limits) {
+        return solve(crossword, limits, null);
+    }
+
+    /** То же с наблюдателем за ходом решения; {@code listener} может быть {@code null}. */
+    SolveResult solve(Crossword crossword, SolveLimits limits, SolveListener listener);
+
+    /**
+     * Ищет решения, пока не найдёт {@code maxSolutions} штук. Пустой список — решений нет;
+     * меньше {@code maxSolutions} — найдены все. С {@code maxSolutions = 2} это проверка
+     * единственности: ровно одно решение в ответе значит, что оно единственное.
+     * Без ограничений — см. {@link #solveAll(Crossword, int, SolveLimits)}.
+     */
+    default List<Solution> solveAll(Crossword crossword, int maxSolutions) {
+        return solveAll(crossword, maxSolutions, SolveLimits.NONE).solutions();
+    }
+
+    /**
+     * Перечисление в пределах {@code limits}. Упёршись в ограничение, возвращает найденное
+     * к этому моменту со статусом {@link com.example.nonogram.core.model.SolveStatus#TIMEOUT}
+     * или {@link com.example.nonogram.core.model.SolveStatus#PARTIAL}.
+     */
+    SolveAllResult solveAll(Crossword crossword, int maxSolutions, SolveLimits limits);
 }
@@ -0,0 +1,11 @@
+package com.example.nonogram.core.io;
+
+public class JpnBinaryFormatException extends RuntimeException {
+    public JpnBinaryFormatException(String msg) {
+        super(msg);
+    }
+
+    public JpnBinaryFormatException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.nonogram.core.io;
+
+import com.example.nonogram.core.model.Crossword;
+
+import java.io.InputStream;
+
+/** Чтение пазла в двоичном формате (см. {@link com.example.nonogram.core.io.binary}). */
+public interface JpnBinaryReader {
+    Crossword read(InputStream in) throws JpnBinaryFormatException;
+}
@@ -0,0 +1,10 @@
+package com.example.nonogram.core.io;
+
+import com.example.nonogram.core.model.Crossword;
+
+import java.io.OutputStream;
+
+/** Запись пазла в двоичном формате (см. {@link com.example.nonogram.core.io.binary}). */
+public interface JpnBinaryWriter {
+    void write(Crossword crossword, OutputStream out);
+}
@@ -0,0 +1,73 @@
+package com.example.nonogram.core.io;
+
+import com.example.nonogram.core.ClueSink;
+
+import java.io.Closeable;
+
+/**
+ * Документ JPNXML, который пишется по линиям: строки, затем столбцы, затем {@link #close()}.
+ * Секции {@code <rows>}/{@code <columns>} открываются и закрываются сами при переходе;
+ * наследник реализует только запись разметки. Ошибки вывода — непроверяемые, как у
+ * {@link JpnXmlWriter#write}.
+ */
+public abstract class JpnXmlLineWriter implements ClueSink, Closeable {
+
+    private static final int NONE = 0, ROWS = 1, COLUMNS = 2, CLOSED = 3;
+
+    private int section = NONE;
+
+    @Override
+    public final void row(int[] clues, int from, int count) {
+        if (section > ROWS) throw new IllegalStateException("Rows must come before columns.");
+        try {
+            moveTo(ROWS);
+            line(true, clues, from, count);
+        } catch (Exception e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public final void column(int[] clues, int from, int count) {
+        if (section == CLOSED) throw new IllegalStateException("Writer is closed.");
+        try {
+            moveTo(COLUMNS);
+            line(false, clues, from, count);
+        } catch (Exception e) {
+            throw failure(e);
+        }
+    }
+
+    /** Дописывает недостающие секции и конец документа и сбрасывает вывод; поток не закрывает. */
+    @Override
+    public final void close() {
+        if (section == CLOSED) return;
+        try {
+            moveTo(COLUMNS);
+            endSection(false);
+            endDocument();
+        } catch (Exception e) {
+            throw failure(e);
+        }
+        section = CLOSED;
+    }
+
+    private void moveTo(int target) throws Exception {
+        while (section < target) {
+            if (section == ROWS) endSection(true);
+            startSection(section++ == NONE);
+        }
+    }
+
+    private static RuntimeException failure(Exception e) {
+        return e instanceof RuntimeException r ? r : new RuntimeException("JPNXML writer error: " + e.getMessage(), e);
+    }
+
+    protected abstract void startSection(boolean rows) throws Exception;
+
+    protected abstract void line(boolean row, int[] clues, int from, int count) throws Exception;
+
+    protected abstract void endSection(boolean rows) throws Exception;
+
+    protected abstract void endDocument() throws Exception;
+}
@@ -6,4 +6,31 @@ import java.io.OutputStream;
 
 public interface JpnXmlWriter {
     void write(Crossword crossword, OutputStream out);
-}
\ No newline at end of file
+
+    /**
+     * Запись по линиям, без готового {@link Crossword}. По умолчанию линии копятся в
+     * {@link Crossword.Builder} и пишутся через {@link #write} при закрытии; писатели,
+     * умеющие выводить линию сразу, переопределяют метод.
+     */
+    default JpnXmlLineWriter open(OutputStream out) {
+        Crossword.Builder lines = Crossword.builder();
+        return new JpnXmlLineWriter() {
+            @Override
+            protected void startSection(boolean rows) {}
+
+            @Override
+            protected void line(boolean row, int[] clues, int from, int count) {
+                if (row) lines.row(clues, from, count);
+                else lines.column(clues, from, count);
+            }
+
+            @Override
+            protected void endSection(boolean rows) {}
+
+            @Override
+            protected void endDocument() {
+                write(lines.build(), out);
+            }
+        };
+    }
+}
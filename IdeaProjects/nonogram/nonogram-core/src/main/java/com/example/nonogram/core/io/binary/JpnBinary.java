@@ -0,0 +1,139 @@
+package com.example.nonogram.core.io.binary;
+
+import com.example.nonogram.core.io.JpnBinaryFormatException;
+import com.example.nonogram.core.model.Crossword;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/** Константы формата и кодирование тела пазла (см. описание пакета). */
+final class JpnBinary {
+
+    static final int PUZZLE_MAGIC = 0x4A504E42;     // "JPNB"
+    static final int LIBRARY_MAGIC = 0x4A504E4C;    // "JPNL"
+    static final byte VERSION = 1;
+
+    static final int LIBRARY_HEADER = 8;
+    static final int LIBRARY_FOOTER = 16;
+
+    private JpnBinary() {}
+
+    /** Дописывает тело пазла в {@code out}. */
+    static void encode(Crossword cw, Bytes out) {
+        out.varint(cw.height());
+        out.varint(cw.width());
+        for (int r = 0; r < cw.height(); r++) out.varint(cw.rowClueLength(r));
+        for (int r = 0; r < cw.height(); r++)
+            for (int k = 0, n = cw.rowClueLength(r); k < n; k++) out.varint(cw.rowClue(r, k));
+        for (int c = 0; c < cw.width(); c++) out.varint(cw.columnClueLength(c));
+        for (int c = 0; c < cw.width(); c++)
+            for (int k = 0, n = cw.columnClueLength(c); k < n; k++) out.varint(cw.columnClue(c, k));
+    }
+
+    /** Разбирает тело пазла в {@code buf} с позиции {@code from} до {@code to}. */
+    static Crossword decode(ByteBuffer buf, int from, int to) {
+        Cursor in = new Cursor(buf, from, to);
+        int height = in.varint();
+        int width = in.varint();
+        if (height <= 0 || width <= 0) throw new JpnBinaryFormatException("Bad dimensions " + height + "x" + width);
+        Crossword.Builder b = Crossword.builder();
+        int[] line = new int[16];
+        int[] counts = decodeCounts(in, height);
+        for (int count : counts) b.row(line = decodeLine(in, count, line), 0, count);
+        counts = decodeCounts(in, width);
+        for (int count : counts) b.column(line = decodeLine(in, count, line), 0, count);
+        if (in.pos != to) throw new JpnBinaryFormatException("Trailing bytes after puzzle body: " + (to - in.pos));
+        return b.build();
+    }
+
+    private static int[] decodeCounts(Cursor in, int lines) {
+        // каждое число занимает хотя бы байт — так битые счётчики не раздуют аллокации
+        if (lines > in.remaining()) throw new JpnBinaryFormatException("Truncated puzzle body");
+        int[] counts = new int[lines];
+        long total = 0;
+        for (int i = 0; i < lines; i++) total += counts[i] = in.varint();
+        if (total > in.remaining()) throw new JpnBinaryFormatException("Truncated puzzle body");
+        return counts;
+    }
+
+    /** Читает {@code count} чисел в {@code buf} (или в новый массив побольше) и возвращает его. */
+    private static int[] decodeLine(Cursor in, int count, int[] buf) {
+        if (count > buf.length) buf = new int[Math.max(count, buf.length * 2)];
+        for (int j = 0; j < count; j++) buf[j] = in.varint();
+        return buf;
+    }
+
+    /** Чтение varint из буфера по абсолютным позициям — буфер не меняется, его можно делить. */
+    static final class Cursor {
+        private final ByteBuffer buf;
+        private final int to;
+        private int pos;
+
+        Cursor(ByteBuffer buf, int from, int to) {
+            this.buf = buf;
+            this.pos = from;
+            this.to = to;
+        }
+
+        int remaining() {
+            return to - pos;
+        }
+
+        int varint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                if (pos >= to) throw new JpnBinaryFormatException("Truncated varint at " + pos);
+                int b = buf.get(pos++);
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    if (value < 0 || (shift == 28 && (b & 0x70) != 0))
+                        throw new JpnBinaryFormatException("Varint out of int range at " + pos);
+                    return value;
+                }
+            }
+            throw new JpnBinaryFormatException("Varint too long at " + pos);
+        }
+    }
+
+    /** Растущий байтовый буфер для записи. */
+    static final class Bytes {
+        byte[] data = new byte[256];
+        int size;
+
+        void varint(int v) {
+            if (v < 0) throw new IllegalArgumentException("Negative value: " + v);
+            ensure(5);
+            while ((v & ~0x7F) != 0) {
+                data[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            data[size++] = (byte) v;
+        }
+
+        void int32(int v) {
+            ensure(4);
+            data[size++] = (byte) (v >>> 24);
+            data[size++] = (byte) (v >>> 16);
+            data[size++] = (byte) (v >>> 8);
+            data[size++] = (byte) v;
+        }
+
+        void int64(long v) {
+            int32((int) (v >>> 32));
+            int32((int) v);
+        }
+
+        void put(byte b) {
+            ensure(1);
+            data[size++] = b;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        private void ensure(int n) {
+            if (size + n > data.length) data = Arrays.copyOf(data, Math.max(data.length * 2, size + n));
+        }
+    }
+}
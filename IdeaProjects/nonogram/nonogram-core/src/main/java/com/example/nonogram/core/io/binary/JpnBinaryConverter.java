@@ -0,0 +1,39 @@
+package com.example.nonogram.core.io.binary;
+
+import com.example.nonogram.core.io.JpnXmlReader;
+import com.example.nonogram.core.model.Crossword;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** Перевод JPNXML в двоичный формат: по одному пазлу или пачкой файлов в библиотеку. */
+public final class JpnBinaryConverter {
+
+    private final JpnXmlReader xmlReader;
+    private final VarintJpnBinaryWriter writer = new VarintJpnBinaryWriter();
+
+    public JpnBinaryConverter(JpnXmlReader xmlReader) {
+        this.xmlReader = xmlReader;
+    }
+
+    public void convert(InputStream xml, OutputStream binary) {
+        writer.write(xmlReader.read(xml), binary);
+    }
+
+    /** Складывает файлы JPNXML в библиотеку в заданном порядке; возвращает число пазлов. */
+    public int buildLibrary(Iterable<Path> xmlFiles, Path library) throws IOException {
+        try (JpnLibraryWriter out = JpnLibraryWriter.create(library)) {
+            for (Path file : xmlFiles) {
+                Crossword cw;
+                try (InputStream in = Files.newInputStream(file)) {
+                    cw = xmlReader.read(in);
+                }
+                out.add(cw);
+            }
+            return out.size();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.nonogram.core.io.binary;
+
+import com.example.nonogram.core.io.JpnBinaryFormatException;
+import com.example.nonogram.core.model.Crossword;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Библиотека пазлов, отображённая в память ({@link FileChannel#map}). Открытие читает
+ * только хвост и проверяет индекс; пазл разбирается из отображения по номеру, когда его
+ * запросили, так что стоимость открытия не зависит от размера библиотеки.
+ * <p>
+ * Чтение идёт по абсолютным позициям и буфер не меняет — {@link #get} можно звать из
+ * разных потоков. Файлы больше 2 ГБ не поддерживаются (одно отображение).
+ */
+public final class JpnLibrary implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final ByteBuffer map;
+    private final int count;
+    private final int indexOffset;
+
+    private JpnLibrary(FileChannel channel, MappedByteBuffer map) {
+        this.channel = channel;
+        this.map = map;
+        int size = map.capacity();
+        if (size < JpnBinary.LIBRARY_HEADER + JpnBinary.LIBRARY_FOOTER
+                || map.getInt(0) != JpnBinary.LIBRARY_MAGIC
+                || map.getInt(size - 4) != JpnBinary.LIBRARY_MAGIC)
+            throw new JpnBinaryFormatException("Not a puzzle library (no JPNL header/footer)");
+        if (map.get(4) != JpnBinary.VERSION)
+            throw new JpnBinaryFormatException("Unsupported library version " + map.get(4));
+
+        long index = map.getLong(size - JpnBinary.LIBRARY_FOOTER);
+        this.count = map.getInt(size - 8);
+        if (count < 0 || index < JpnBinary.LIBRARY_HEADER || index + 8L * count != size - JpnBinary.LIBRARY_FOOTER)
+            throw new JpnBinaryFormatException("Corrupt library index");
+        this.indexOffset = (int) index;
+    }
+
+    public static JpnLibrary open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new JpnBinaryFormatException("Library files over 2 GB are not supported: " + size + " bytes");
+            return new JpnLibrary(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /** Разбирает пазл номер {@code index}; каждый вызов даёт новый {@link Crossword}. */
+    public Crossword get(int index) {
+        if (index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("Puzzle " + index + " of " + count);
+        long from = map.getLong(indexOffset + 8 * index);
+        long to = index + 1 < count ? map.getLong(indexOffset + 8 * (index + 1)) : indexOffset;
+        if (from < JpnBinary.LIBRARY_HEADER || to < from || to > indexOffset)
+            throw new JpnBinaryFormatException("Corrupt library index at " + index);
+        try {
+            return JpnBinary.decode(map, (int) from, (int) to);
+        } catch (IllegalArgumentException e) {
+            throw new JpnBinaryFormatException("Invalid puzzle " + index + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // отображение освободит GC; канал больше не нужен
+        channel.close();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.nonogram.core.io.binary;
+
+import com.example.nonogram.core.model.Crossword;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Пишет библиотеку пазлов потоком: тела по мере {@link #add}, индекс и хвост — в
+ * {@link #close}. Пока библиотека не закрыта, файл неполон и не читается.
+ * Не потокобезопасен.
+ */
+public final class JpnLibraryWriter implements AutoCloseable {
+
+    private final OutputStream out;
+    private final JpnBinary.Bytes bytes = new JpnBinary.Bytes();
+    private long position;
+    private long[] offsets = new long[64];
+    private int count;
+    private boolean closed;
+
+    public JpnLibraryWriter(OutputStream out) throws IOException {
+        this.out = out;
+        bytes.int32(JpnBinary.LIBRARY_MAGIC);
+        bytes.put(JpnBinary.VERSION);
+        bytes.put((byte) 0);
+        bytes.put((byte) 0);
+        bytes.put((byte) 0);
+        flushBytes();
+    }
+
+    public static JpnLibraryWriter create(Path file) throws IOException {
+        return new JpnLibraryWriter(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+    }
+
+    /** Дописывает пазл; его номер в библиотеке — число добавленных до него. */
+    public void add(Crossword crossword) throws IOException {
+        if (closed) throw new IllegalStateException("Library writer is closed");
+        if (count == offsets.length) offsets = Arrays.copyOf(offsets, count * 2);
+        offsets[count++] = position;
+        JpnBinary.encode(crossword, bytes);
+        flushBytes();
+    }
+
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try (out) {
+            long indexOffset = position;
+            for (int i = 0; i < count; i++) {
+                bytes.int64(offsets[i]);
+                if (bytes.size >= 1 << 16) flushBytes();
+            }
+            bytes.int64(indexOffset);
+            bytes.int32(count);
+            bytes.int32(JpnBinary.LIBRARY_MAGIC);
+            flushBytes();
+        }
+    }
+
+    private void flushBytes() throws IOException {
+        out.write(bytes.data, 0, bytes.size);
+        position += bytes.size;
+        bytes.clear();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.nonogram.core.io.binary;
+
+import com.example.nonogram.core.io.JpnBinaryFormatException;
+import com.example.nonogram.core.io.JpnBinaryReader;
+import com.example.nonogram.core.model.Crossword;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/** Один пазл, записанный {@link VarintJpnBinaryWriter}. */
+public class VarintJpnBinaryReader implements JpnBinaryReader {
+
+    @Override
+    public Crossword read(InputStream in) throws JpnBinaryFormatException {
+        if (in == null) throw new JpnBinaryFormatException("InputStream is null");
+        byte[] bytes;
+        try {
+            bytes = in.readAllBytes();
+        } catch (IOException e) {
+            throw new JpnBinaryFormatException("Read error: " + e.getMessage(), e);
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        if (bytes.length < 5 || buf.getInt(0) != JpnBinary.PUZZLE_MAGIC)
+            throw new JpnBinaryFormatException("Not a binary puzzle (no JPNB header)");
+        if (buf.get(4) != JpnBinary.VERSION)
+            throw new JpnBinaryFormatException("Unsupported binary puzzle version " + buf.get(4));
+        try {
+            return JpnBinary.decode(buf, 5, bytes.length);
+        } catch (IllegalArgumentException e) {
+            throw new JpnBinaryFormatException("Invalid puzzle: " + e.getMessage(), e);
+        }
+    }
+}
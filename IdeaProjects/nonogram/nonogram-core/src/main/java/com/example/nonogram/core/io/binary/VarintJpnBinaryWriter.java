@@ -0,0 +1,26 @@
+package com.example.nonogram.core.io.binary;
+
+import com.example.nonogram.core.io.JpnBinaryWriter;
+import com.example.nonogram.core.model.Crossword;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/** Один пазл: заголовок {@code JPNB} + версия, затем тело (см. описание пакета). */
+public class VarintJpnBinaryWriter implements JpnBinaryWriter {
+
+    @Override
+    public void write(Crossword crossword, OutputStream out) {
+        JpnBinary.Bytes bytes = new JpnBinary.Bytes();
+        bytes.int32(JpnBinary.PUZZLE_MAGIC);
+        bytes.put(JpnBinary.VERSION);
+        JpnBinary.encode(crossword, bytes);
+        try {
+            out.write(bytes.data, 0, bytes.size);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
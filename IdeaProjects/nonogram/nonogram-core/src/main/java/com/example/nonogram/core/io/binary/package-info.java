@@ -0,0 +1,14 @@
+/**
+ * Двоичный формат пазлов и библиотеки пазлов.
+ * <p>
+ * Пазл ({@code .jpnb}): магия {@code JPNB}, байт версии, затем тело. Тело — только
+ * беззнаковые varint (LEB128): высота, ширина; число подсказок каждой строки (плоский
+ * массив из {@code height} значений), затем все подсказки строк подряд; то же для колонок.
+ * <p>
+ * Библиотека ({@code .jpnl}): магия {@code JPNL}, байт версии, три резервных байта; тела
+ * пазлов подряд; индекс — смещения тел от начала файла, по {@code int64}; хвост из 16 байт:
+ * смещение индекса ({@code int64}), число пазлов ({@code int32}) и снова {@code JPNL}.
+ * Индекс в конце позволяет писать библиотеку потоком, а хвост фиксированной длины —
+ * найти индекс без чтения файла. Все многобайтовые числа фиксированной длины — big-endian.
+ */
+package com.example.nonogram.core.io.binary;
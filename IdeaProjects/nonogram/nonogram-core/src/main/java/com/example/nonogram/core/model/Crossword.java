@@ -1,30 +1,237 @@
 package com.example.nonogram.core.model;
 
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
+import java.util.RandomAccess;
 
+/**
+ * Подсказки пазла. Хранятся плоско: все числа в одном {@code int[]} (сначала строки, затем
+ * столбцы), а линия {@code i} занимает в нём отрезок {@code [start[i], start[i + 1])} —
+ * без боксинга и без объекта на линию. Нули сохраняются как есть: {@code [0]} и {@code []}
+ * для модели разные линии, одинаковыми их считает решатель.
+ * <p>
+ * Списки {@link #getRows()}/{@link #getColumns()} — неизменяемые представления над тем же
+ * массивом, создаются при первом обращении; горячий код читает числа через
+ * {@link #rowClue}/{@link #columnClue}.
+ */
 public final class Crossword {
-    private final List<List<Integer>> rows;
-    private final List<List<Integer>> columns;
+    private final int height;
+    private final int width;
+    private final int[] clues;
+    private final int[] rowStart;       // height + 1 смещений в clues
+    private final int[] columnStart;    // width + 1 смещений, продолжают строки
+
+    private List<List<Integer>> rows;
+    private List<List<Integer>> columns;
 
     public Crossword(List<List<Integer>> rows, List<List<Integer>> columns) {
-        this.rows = List.copyOf(rows);
-        this.columns = List.copyOf(columns);
-        validate();
+        if (rows == null || columns == null || rows.isEmpty() || columns.isEmpty())
+            throw new IllegalArgumentException("Rows/columns must be non-empty.");
+        this.height = rows.size();
+        this.width = columns.size();
+        this.rowStart = new int[height + 1];
+        this.columnStart = new int[width + 1];
+        int total = count(rows, rowStart, 0);
+        total = count(columns, columnStart, total);
+        this.clues = new int[total];
+        copy(rows, rowStart);
+        copy(columns, columnStart);
     }
 
-    private void validate() {
-        if (rows == null || columns == null || rows.isEmpty() || columns.isEmpty())
+    private Crossword(int[] clues, int[] rowStart, int[] columnStart) {
+        this.height = rowStart.length - 1;
+        this.width = columnStart.length - 1;
+        this.clues = clues;
+        this.rowStart = rowStart;
+        this.columnStart = columnStart;
+    }
+
+    private static int count(List<List<Integer>> lines, int[] start, int offset) {
+        for (int i = 0; i < lines.size(); i++) {
+            List<Integer> line = lines.get(i);
+            if (line == null) throw new IllegalArgumentException("Row/column lists must not contain null.");
+            start[i] = offset;
+            offset += line.size();
+        }
+        start[lines.size()] = offset;
+        return offset;
+    }
+
+    private void copy(List<List<Integer>> lines, int[] start) {
+        for (int i = 0; i < lines.size(); i++) {
+            int at = start[i];
+            for (Integer n : lines.get(i)) {
+                if (n == null || n < 0) throw new IllegalArgumentException("Clue numbers must be >= 0.");
+                clues[at++] = n;
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Пазл прямо из плоской раскладки: строка {@code i} — {@code clues[rowStart[i]..rowStart[i + 1])},
+     * столбцы продолжают ту же нумерацию ({@code columnStart[0] == rowStart[height]},
+     * {@code columnStart[width] == clues.length}). Массивы не копируются и переходят во
+     * владение пазла.
+     */
+    public static Crossword ofFlat(int[] clues, int[] rowStart, int[] columnStart) {
+        if (rowStart.length < 2 || columnStart.length < 2)
             throw new IllegalArgumentException("Rows/columns must be non-empty.");
-        if (rows.stream().anyMatch(Objects::isNull) || columns.stream().anyMatch(Objects::isNull))
-            throw new IllegalArgumentException("Row/column lists must not contain null.");
-        if (rows.stream().flatMap(List::stream).anyMatch(n -> n == null || n < 0)
-                || columns.stream().flatMap(List::stream).anyMatch(n -> n == null || n < 0))
-            throw new IllegalArgumentException("Clue numbers must be >= 0.");
-    }
-
-    public List<List<Integer>> getRows() { return rows; }
-    public List<List<Integer>> getColumns() { return columns; }
-    public int height() { return rows.size(); }
-    public int width() { return columns.size(); }
-}
\ No newline at end of file
+        if (rowStart[0] != 0 || columnStart[0] != rowStart[rowStart.length - 1]
+                || columnStart[columnStart.length - 1] != clues.length)
+            throw new IllegalArgumentException("Line offsets do not cover the clue array.");
+        for (int[] start : new int[][]{rowStart, columnStart})
+            for (int i = 1; i < start.length; i++)
+                if (start[i] < start[i - 1]) throw new IllegalArgumentException("Line offsets must not decrease.");
+        for (int n : clues)
+            if (n < 0) throw new IllegalArgumentException("Clue numbers must be >= 0.");
+        return new Crossword(clues, rowStart, columnStart);
+    }
+
+    public int height() { return height; }
+    public int width() { return width; }
+
+    public int rowClueLength(int row) { return rowStart[row + 1] - rowStart[row]; }
+    public int columnClueLength(int column) { return columnStart[column + 1] - columnStart[column]; }
+
+    public int rowClue(int row, int k) { return clues[index(rowStart, row, k)]; }
+    public int columnClue(int column, int k) { return clues[index(columnStart, column, k)]; }
+
+    /** Подсказки строки только для чтения, без копирования. */
+    public IntBuffer rowClues(int row) { return view(rowStart, row); }
+    public IntBuffer columnClues(int column) { return view(columnStart, column); }
+
+    /** Копия подсказок строки. */
+    public int[] copyRowClues(int row) { return Arrays.copyOfRange(clues, rowStart[row], rowStart[row + 1]); }
+    public int[] copyColumnClues(int column) { return Arrays.copyOfRange(clues, columnStart[column], columnStart[column + 1]); }
+
+    /** Сколько всего чисел в подсказках строк и столбцов. */
+    public int clueCount() { return clues.length; }
+
+    public List<List<Integer>> getRows() {
+        List<List<Integer>> r = rows;
+        if (r == null) rows = r = new Lines(rowStart);
+        return r;
+    }
+
+    public List<List<Integer>> getColumns() {
+        List<List<Integer>> c = columns;
+        if (c == null) columns = c = new Lines(columnStart);
+        return c;
+    }
+
+    private int index(int[] start, int line, int k) {
+        int at = start[line] + k;
+        if (k < 0 || at >= start[line + 1])
+            throw new IndexOutOfBoundsException("Clue " + k + " of line " + line + " out of " + (start[line + 1] - start[line]));
+        return at;
+    }
+
+    private IntBuffer view(int[] start, int line) {
+        return IntBuffer.wrap(clues, start[line], start[line + 1] - start[line]).slice().asReadOnlyBuffer();
+    }
+
+    /** Линии как списки; все поля конечные, так что гонка при ленивом создании безвредна. */
+    private final class Lines extends AbstractList<List<Integer>> implements RandomAccess {
+        private final int[] start;
+
+        Lines(int[] start) {
+            this.start = start;
+        }
+
+        @Override
+        public List<Integer> get(int i) {
+            return new Line(start[i], start[i + 1]);
+        }
+
+        @Override
+        public int size() {
+            return start.length - 1;
+        }
+    }
+
+    private final class Line extends AbstractList<Integer> implements RandomAccess {
+        private final int from;
+        private final int to;
+
+        Line(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Integer get(int k) {
+            if (k < 0 || k >= to - from) throw new IndexOutOfBoundsException("Index " + k + " out of " + (to - from));
+            return clues[from + k];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    /**
+     * Сборка без промежуточных списков. Строки и столбцы добавляются по порядку, друг
+     * относительно друга — в любом. Массивы, переданные в {@code row}/{@code column},
+     * копируются и могут переиспользоваться.
+     */
+    public static final class Builder {
+        private final LineBuffer rows = new LineBuffer();
+        private final LineBuffer columns = new LineBuffer();
+
+        private Builder() {}
+
+        public Builder row(int... clues) {
+            return row(clues, 0, clues.length);
+        }
+
+        public Builder row(int[] clues, int from, int count) {
+            rows.add(clues, from, count);
+            return this;
+        }
+
+        public Builder column(int... clues) {
+            return column(clues, 0, clues.length);
+        }
+
+        public Builder column(int[] clues, int from, int count) {
+            columns.add(clues, from, count);
+            return this;
+        }
+
+        public int rows() { return rows.count; }
+        public int columns() { return columns.count; }
+
+        public Crossword build() {
+            if (rows.count == 0 || columns.count == 0) throw new IllegalArgumentException("Rows/columns must be non-empty.");
+            int[] clues = Arrays.copyOf(rows.clues, rows.size + columns.size);
+            System.arraycopy(columns.clues, 0, clues, rows.size, columns.size);
+            int[] columnStart = new int[columns.count + 1];
+            for (int i = 0; i <= columns.count; i++) columnStart[i] = rows.size + columns.start[i];
+            return new Crossword(clues, Arrays.copyOf(rows.start, rows.count + 1), columnStart);
+        }
+
+        private static final class LineBuffer {
+            int[] clues = new int[64];
+            int size;
+            int[] start = new int[17];
+            int count;
+
+            void add(int[] src, int from, int n) {
+                for (int i = from; i < from + n; i++)
+                    if (src[i] < 0) throw new IllegalArgumentException("Clue numbers must be >= 0.");
+                if (size + n > clues.length) clues = Arrays.copyOf(clues, Math.max(clues.length * 2, size + n));
+                System.arraycopy(src, from, clues, size, n);
+                size += n;
+                if (++count == start.length) start = Arrays.copyOf(start, start.length * 2);
+                start[count] = size;
+            }
+        }
+    }
+}
@@ -1,26 +1,66 @@
 package com.example.nonogram.core.model;
 
+import java.util.Arrays;
 import java.util.Objects;
 
+/**
+ * Сетка решения, упакованная в биты: строка {@code r} занимает {@link #rowWords()} слов
+ * {@code long} подряд, клетка {@code c} — бит {@code c & 63} слова {@code c >>> 6}.
+ * Биты за шириной строки всегда нулевые. Сетка 2000×2000 занимает 0,5 МБ.
+ * <p>
+ * Для обхода без поклеточных вызовов есть массовые чтения строки и столбца и выделение
+ * блоков подряд идущих закрашенных клеток.
+ */
 public final class Solution {
     private final Crossword crossword;
-    private final boolean[][] filled;
+    private final int rowWords;
+    private final long[] bits;
 
-    private Solution(Crossword crossword, boolean[][] filled) {
+    private Solution(Crossword crossword, long[] bits) {
         this.crossword = Objects.requireNonNull(crossword);
-        this.filled = Objects.requireNonNull(filled);
-        int h = crossword.height(), w = crossword.width();
-        if (filled.length != h) throw new IllegalArgumentException("Bad height");
-        for (int r = 0; r < h; r++)
-            if (filled[r] == null || filled[r].length != w) throw new IllegalArgumentException("Bad width at row "+r);
+        this.rowWords = words(crossword.width());
+        this.bits = Objects.requireNonNull(bits);
+        if (bits.length != crossword.height() * rowWords)
+            throw new IllegalArgumentException("Expected " + crossword.height() * rowWords + " words, got " + bits.length);
     }
 
     public static Solution empty(Crossword cw) {
-        return new Solution(cw, new boolean[cw.height()][cw.width()]);
+        return new Solution(cw, new long[cw.height() * words(cw.width())]);
     }
 
     public static Solution of(Crossword cw, boolean[][] grid) {
-        return new Solution(cw, grid);
+        Objects.requireNonNull(grid);
+        int h = cw.height(), w = cw.width();
+        if (grid.length != h) throw new IllegalArgumentException("Bad height");
+        Solution s = empty(cw);
+        for (int r = 0; r < h; r++) {
+            if (grid[r] == null || grid[r].length != w) throw new IllegalArgumentException("Bad width at row " + r);
+            int base = r * s.rowWords;
+            for (int c = 0; c < w; c++)
+                if (grid[r][c]) s.bits[base + (c >>> 6)] |= 1L << c;
+        }
+        return s;
+    }
+
+    /**
+     * Решение поверх готовых слов в раскладке этого класса; массив не копируется и
+     * переходит во владение решения.
+     */
+    public static Solution ofRowBits(Crossword cw, long[] bits) {
+        Solution s = new Solution(cw, bits);
+        int tail = cw.width() & 63;
+        if (tail != 0) {
+            long mask = -1L << tail;
+            for (int r = 0; r < cw.height(); r++)
+                if ((bits[(r + 1) * s.rowWords - 1] & mask) != 0)
+                    throw new IllegalArgumentException("Bits set beyond width at row " + r);
+        }
+        return s;
+    }
+
+    /** Сколько слов нужно под {@code bits} бит. */
+    public static int words(int bits) {
+        return (bits + 63) >>> 6;
     }
 
     public Crossword crossword() {
@@ -35,11 +75,129 @@ public final class Solution {
         return crossword.width();
     }
 
+    /** Слов {@code long} на строку. */
+    public int rowWords() {
+        return rowWords;
+    }
+
     public boolean isFilled(int r, int c) {
-        return filled[r][c];
+        checkCell(r, c);
+        return (bits[r * rowWords + (c >>> 6)] & (1L << c)) != 0;
     }
 
     public void setFilled(int r, int c, boolean v) {
-        filled[r][c] = v;
+        checkCell(r, c);
+        int i = r * rowWords + (c >>> 6);
+        if (v) bits[i] |= 1L << c;
+        else bits[i] &= ~(1L << c);
+    }
+
+    /** Слово {@code i} строки {@code r}: чтение по словам без копии сетки. */
+    public long rowWord(int r, int i) {
+        Objects.checkIndex(r, height());
+        Objects.checkIndex(i, rowWords);
+        return bits[r * rowWords + i];
+    }
+
+    /** Копирует строку {@code r} в {@code dst} ({@link #rowWords()} слов с позиции {@code off}). */
+    public void copyRow(int r, long[] dst, int off) {
+        Objects.checkIndex(r, height());
+        System.arraycopy(bits, r * rowWords, dst, off, rowWords);
+    }
+
+    /** Собирает столбец {@code c} в {@code dst}: бит {@code r} — клетка строки {@code r}. */
+    public void copyColumn(int c, long[] dst, int off) {
+        Objects.checkIndex(c, width());
+        int h = height(), word = c >>> 6;
+        Arrays.fill(dst, off, off + words(h), 0L);
+        for (int r = 0; r < h; r++)
+            dst[off + (r >>> 6)] |= ((bits[r * rowWords + word] >>> c) & 1L) << r;
+    }
+
+    /** Слова всей сетки, копия. */
+    public long[] toRowBits() {
+        return bits.clone();
+    }
+
+    public Solution copy() {
+        return new Solution(crossword, bits.clone());
+    }
+
+    /** Сколько клеток закрашено. */
+    public long filledCount() {
+        long n = 0;
+        for (long w : bits) n += Long.bitCount(w);
+        return n;
+    }
+
+    /** Длины блоков строки {@code r} слева направо — подсказка, которую даёт эта строка. */
+    public int[] rowRuns(int r) {
+        Objects.checkIndex(r, height());
+        return runs(bits, r * rowWords, width());
+    }
+
+    /** Блоки строки {@code r} в {@code out}, см. {@link #runs(long[], int, int, int[])}. */
+    public int rowRuns(int r, int[] out) {
+        Objects.checkIndex(r, height());
+        return runs(bits, r * rowWords, width(), out);
+    }
+
+    /** Длины блоков столбца {@code c} сверху вниз. */
+    public int[] columnRuns(int c) {
+        long[] column = new long[words(height())];
+        copyColumn(c, column, 0);
+        return runs(column, 0, height());
+    }
+
+    /**
+     * Длины блоков единиц среди первых {@code length} бит, начиная со слова {@code from}.
+     * Биты за {@code length} должны быть нулевыми.
+     */
+    public static int[] runs(long[] words, int from, int length) {
+        int[] out = new int[(length + 1) >>> 1];
+        return Arrays.copyOf(out, runs(words, from, length, out));
+    }
+
+    /**
+     * То же в {@code out} (хватает {@code (length + 1) / 2} элементов) без аллокаций;
+     * возвращает число блоков.
+     */
+    public static int runs(long[] words, int from, int length, int[] out) {
+        int n = 0;
+        int pos = 0;
+        while (pos < length) {
+            int start = nextSetBit(words, from, length, pos);
+            if (start >= length) break;
+            int end = nextClearBit(words, from, length, start);
+            out[n++] = end - start;
+            pos = end;
+        }
+        return n;
+    }
+
+    /** Позиция первой единицы среди {@code length} бит с {@code pos}; {@code length}, если её нет. */
+    public static int nextSetBit(long[] words, int from, int length, int pos) {
+        return nextBit(words, from, length, pos, false);
+    }
+
+    /** Позиция первого нуля среди {@code length} бит с {@code pos}; {@code length}, если его нет. */
+    public static int nextClearBit(long[] words, int from, int length, int pos) {
+        return nextBit(words, from, length, pos, true);
+    }
+
+    private static int nextBit(long[] words, int from, int length, int pos, boolean clear) {
+        int i = pos >>> 6;
+        int last = (length - 1) >>> 6;
+        long w = (clear ? ~words[from + i] : words[from + i]) & (-1L << pos);
+        while (w == 0) {
+            if (++i > last) return length;
+            w = clear ? ~words[from + i] : words[from + i];
+        }
+        return Math.min(length, (i << 6) + Long.numberOfTrailingZeros(w));
+    }
+
+    private void checkCell(int r, int c) {
+        Objects.checkIndex(r, height());
+        Objects.checkIndex(c, width());
     }
-}
\ No newline at end of file
+}
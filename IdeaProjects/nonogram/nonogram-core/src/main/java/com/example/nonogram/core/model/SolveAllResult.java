@@ -0,0 +1,23 @@
+package com.example.nonogram.core.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Результат перечисления решений с ограничениями. {@link SolveStatus#SOLVED} — перечисление
+ * закончилось само (найдено сколько просили или все), {@link SolveStatus#UNSAT} — решений
+ * нет, {@link SolveStatus#TIMEOUT}/{@link SolveStatus#PARTIAL} — остановлено ограничением,
+ * и в списке только то, что успели найти.
+ */
+public record SolveAllResult(SolveStatus status, List<Solution> solutions) {
+
+    public SolveAllResult {
+        Objects.requireNonNull(status);
+        solutions = List.copyOf(solutions);
+    }
+
+    /** {@code true}, если перечисление прервано ограничением. */
+    public boolean isStopped() {
+        return status == SolveStatus.TIMEOUT || status == SolveStatus.PARTIAL;
+    }
+}
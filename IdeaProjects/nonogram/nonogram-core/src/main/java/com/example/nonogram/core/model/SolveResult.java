@@ -0,0 +1,52 @@
+package com.example.nonogram.core.model;
+
+import java.util.Objects;
+
+/**
+ * Результат решения с ограничениями: статус, сетка и маска клеток, которые действительно
+ * выведены. Для {@link SolveStatus#SOLVED} известны все клетки; для {@link SolveStatus#TIMEOUT}
+ * и {@link SolveStatus#PARTIAL} сетка содержит только доказанные клетки (без догадок поиска),
+ * остальные — незакрашены и помечены как неизвестные.
+ */
+public final class SolveResult {
+    private final SolveStatus status;
+    private final Solution solution;
+    private final boolean[][] known;            // null — известны все клетки
+
+    private SolveResult(SolveStatus status, Solution solution, boolean[][] known) {
+        this.status = Objects.requireNonNull(status);
+        this.solution = Objects.requireNonNull(solution);
+        this.known = known;
+        if (known != null && known.length != solution.height())
+            throw new IllegalArgumentException("Bad height of known mask");
+    }
+
+    public static SolveResult solved(Solution solution) {
+        return new SolveResult(SolveStatus.SOLVED, solution, null);
+    }
+
+    public static SolveResult of(SolveStatus status, Solution solution, boolean[][] known) {
+        return new SolveResult(status, solution, known);
+    }
+
+    public SolveStatus status() {
+        return status;
+    }
+
+    public Solution solution() {
+        return solution;
+    }
+
+    public boolean isKnown(int r, int c) {
+        return known == null || known[r][c];
+    }
+
+    /** {@code true}, если известны все клетки. */
+    public boolean isComplete() {
+        if (known == null) return true;
+        for (boolean[] row : known)
+            for (boolean k : row)
+                if (!k) return false;
+        return true;
+    }
+}
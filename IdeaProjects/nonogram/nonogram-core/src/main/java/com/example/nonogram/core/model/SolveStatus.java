@@ -0,0 +1,13 @@
+package com.example.nonogram.core.model;
+
+/** Чем закончилось решение. */
+public enum SolveStatus {
+    /** Сетка решена полностью. */
+    SOLVED,
+    /** Решений нет: подсказки противоречивы. */
+    UNSAT,
+    /** Истёк дедлайн; известна только часть клеток. */
+    TIMEOUT,
+    /** Исчерпан бюджет узлов или решение отменено; известна только часть клеток. */
+    PARTIAL
+}
@@ -6,26 +6,51 @@ import com.example.nonogram.core.model.Crossword;
 import org.w3c.dom.*;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Фабрика настраивается один раз на экземпляр; {@link DocumentBuilder} не потокобезопасен,
+ * поэтому у каждого потока свой, со сбросом перед разбором.
+ */
 public class DomJpnXmlReader implements JpnXmlReader {
 
+    private final DocumentBuilderFactory dbf;
+    private final ThreadLocal<DocumentBuilder> builders = ThreadLocal.withInitial(this::newBuilder);
+
+    public DomJpnXmlReader() {
+        dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(false);
+        dbf.setIgnoringComments(true);
+        dbf.setCoalescing(true);
+        dbf.setExpandEntityReferences(false);
+        try {
+            dbf.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("DOM parser does not support disallowing DTDs", e);
+        }
+    }
+
+    private DocumentBuilder newBuilder() {
+        // сама фабрика не обязана быть потокобезопасной
+        synchronized (dbf) {
+            try {
+                return dbf.newDocumentBuilder();
+            } catch (ParserConfigurationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
     @Override
     public Crossword read(InputStream in) throws JpnXmlReaderException {
         try {
             if (in == null) throw new JpnXmlReaderException("InputStream is null");
 
-            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-            dbf.setNamespaceAware(false);
-            dbf.setIgnoringComments(true);
-            dbf.setCoalescing(true);
-            dbf.setExpandEntityReferences(false);
-
-            dbf.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-
-            DocumentBuilder db = dbf.newDocumentBuilder();
+            DocumentBuilder db = builders.get();
+            db.reset();
             Document doc = db.parse(in);
             doc.getDocumentElement().normalize();
 
@@ -5,21 +5,55 @@ import com.example.nonogram.core.model.Crossword;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
+import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import java.io.OutputStream;
 import java.util.List;
 
+/**
+ * Фабрики создаются один раз на экземпляр; {@link DocumentBuilder} и {@link Transformer}
+ * не потокобезопасны — у каждого потока свои, со сбросом перед использованием.
+ */
 public class DomJpnXmlWriter implements JpnXmlWriter {
 
+    private final DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+    private final TransformerFactory tf = TransformerFactory.newInstance();
+    private final ThreadLocal<DocumentBuilder> builders = ThreadLocal.withInitial(this::newBuilder);
+    private final ThreadLocal<Transformer> transformers = ThreadLocal.withInitial(this::newTransformer);
+
+    private DocumentBuilder newBuilder() {
+        synchronized (dbf) {
+            try {
+                return dbf.newDocumentBuilder();
+            } catch (ParserConfigurationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private Transformer newTransformer() {
+        synchronized (tf) {
+            try {
+                return tf.newTransformer();
+            } catch (TransformerConfigurationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
     @Override
     public void write(Crossword cw, OutputStream out) {
         try {
-            Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+            DocumentBuilder db = builders.get();
+            db.reset();
+            Document doc = db.newDocument();
             Element root = doc.createElement("crossword");
             doc.appendChild(root);
 
@@ -43,8 +77,8 @@ public class DomJpnXmlWriter implements JpnXmlWriter {
                 colsEl.appendChild(colEl);
             }
 
-            TransformerFactory tf = TransformerFactory.newInstance();
-            Transformer t = tf.newTransformer();
+            Transformer t = transformers.get();
+            t.reset();
             t.setOutputProperty(OutputKeys.INDENT, "yes");
             t.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
             t.transform(new DOMSource(doc), new StreamResult(out));
@@ -0,0 +1,210 @@
+package com.example.nonogram.adapters;
+
+import com.example.nonogram.core.io.JpnXmlLineWriter;
+import com.example.nonogram.core.io.JpnXmlWriter;
+import com.example.nonogram.core.model.Crossword;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Писатель JPNXML без JAXP: разметка и числа подсказок кодируются в UTF-8 прямо в байтовый
+ * буфер, который сбрасывается в поток по заполнении. Ни строк на линию, ни {@code char[]}.
+ * Буфер свой у каждого потока и переиспользуется между вызовами.
+ * <p>
+ * С отступами вывод совпадает по виду с остальными писателями (два пробела на уровень),
+ * без них — одна строка после объявления, для архивов и передачи по сети.
+ * <p>
+ * {@link #open} пишет линию сразу при получении: в памяти только буфер вывода.
+ */
+public class DirectJpnXmlWriter implements JpnXmlWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+    // самая длинная запись между проверками места: отступ, тег и одно число
+    private static final int MAX_CHUNK = 64;
+
+    private static final byte[] DECLARATION = ascii("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    private final boolean indent;
+
+    public DirectJpnXmlWriter() {
+        this(true);
+    }
+
+    public DirectJpnXmlWriter(boolean indent) {
+        this.indent = indent;
+    }
+
+    @Override
+    public void write(Crossword cw, OutputStream out) {
+        try {
+            Sink sink = new Sink(BUFFERS.get(), out);
+            begin(sink);
+            writeSection(sink, cw, true);
+            writeSection(sink, cw, false);
+            end(sink);
+        } catch (Exception e) {
+            throw new RuntimeException("Direct writer error: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public JpnXmlLineWriter open(OutputStream out) {
+        // документ живёт дольше одного вызова, поэтому буфер свой, а не потоковый
+        Sink sink = new Sink(new byte[BUFFER_SIZE], out);
+        try {
+            begin(sink);
+        } catch (IOException e) {
+            throw new RuntimeException("Direct writer error: " + e.getMessage(), e);
+        }
+        return new JpnXmlLineWriter() {
+            @Override
+            protected void startSection(boolean rows) throws IOException {
+                DirectJpnXmlWriter.this.startSection(sink, rows);
+            }
+
+            @Override
+            protected void line(boolean row, int[] clues, int from, int count) throws IOException {
+                startLine(sink, row, count);
+                for (int i = 0; i < count; i++) {
+                    sink.ensure(MAX_CHUNK);
+                    if (i > 0) sink.put(' ');
+                    sink.putInt(clues[from + i]);
+                }
+                endLine(sink, row, count);
+            }
+
+            @Override
+            protected void endSection(boolean rows) throws IOException {
+                DirectJpnXmlWriter.this.endSection(sink, rows);
+            }
+
+            @Override
+            protected void endDocument() throws IOException {
+                end(sink);
+            }
+        };
+    }
+
+    private void begin(Sink sink) throws IOException {
+        sink.put(DECLARATION);
+        newLine(sink, 0);
+        sink.put("<crossword>");
+    }
+
+    private void end(Sink sink) throws IOException {
+        newLine(sink, 0);
+        sink.put("</crossword>");
+        if (indent) sink.put('\n');
+        sink.flush();
+    }
+
+    private void writeSection(Sink sink, Crossword cw, boolean rows) throws IOException {
+        startSection(sink, rows);
+        for (int line = 0, lines = rows ? cw.height() : cw.width(); line < lines; line++) {
+            int size = rows ? cw.rowClueLength(line) : cw.columnClueLength(line);
+            startLine(sink, rows, size);
+            for (int i = 0; i < size; i++) {
+                sink.ensure(MAX_CHUNK);
+                if (i > 0) sink.put(' ');
+                sink.putInt(rows ? cw.rowClue(line, i) : cw.columnClue(line, i));
+            }
+            endLine(sink, rows, size);
+        }
+        endSection(sink, rows);
+    }
+
+    private void startSection(Sink sink, boolean rows) throws IOException {
+        newLine(sink, 1);
+        sink.put(rows ? "<rows>" : "<columns>");
+    }
+
+    private void endSection(Sink sink, boolean rows) throws IOException {
+        newLine(sink, 1);
+        sink.put(rows ? "</rows>" : "</columns>");
+    }
+
+    /** Открывающий тег линии; пустая линия сразу пишется как {@code <row/>}. */
+    private void startLine(Sink sink, boolean row, int size) throws IOException {
+        newLine(sink, 2);
+        if (size == 0) sink.put(row ? "<row/>" : "<column/>");
+        else sink.put(row ? "<row>" : "<column>");
+    }
+
+    private static void endLine(Sink sink, boolean row, int size) throws IOException {
+        if (size > 0) sink.put(row ? "</row>" : "</column>");
+    }
+
+    private void newLine(Sink sink, int level) throws IOException {
+        if (!indent) return;
+        sink.ensure(MAX_CHUNK);
+        sink.put('\n');
+        for (int i = 0; i < level; i++) sink.put("  ");
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Окно буфера над потоком. {@link #put} не проверяет место — вызывающий заранее
+     * резервирует его через {@link #ensure}; вся разметка здесь ASCII.
+     */
+    private static final class Sink {
+        private final byte[] buf;
+        private final OutputStream out;
+        private int pos;
+
+        Sink(byte[] buf, OutputStream out) {
+            this.buf = buf;
+            this.out = out;
+        }
+
+        void ensure(int bytes) throws IOException {
+            if (pos + bytes > buf.length) drain();
+        }
+
+        Sink put(char c) throws IOException {
+            ensure(1);
+            buf[pos++] = (byte) c;
+            return this;
+        }
+
+        Sink put(String s) throws IOException {
+            ensure(s.length());
+            for (int i = 0; i < s.length(); i++) buf[pos++] = (byte) s.charAt(i);
+            return this;
+        }
+
+        void put(byte[] bytes) throws IOException {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        /** Десятичная запись неотрицательного числа; место под 10 цифр уже зарезервировано. */
+        void putInt(int v) {
+            int digits = 1;
+            for (int t = v; t >= 10; t /= 10) digits++;
+            int end = pos + digits;
+            for (int i = end - 1; i >= pos; i--) {
+                buf[i] = (byte) ('0' + v % 10);
+                v /= 10;
+            }
+            pos = end;
+        }
+
+        private void drain() throws IOException {
+            out.write(buf, 0, pos);
+            pos = 0;
+        }
+
+        void flush() throws IOException {
+            drain();
+            out.flush();
+        }
+    }
+}
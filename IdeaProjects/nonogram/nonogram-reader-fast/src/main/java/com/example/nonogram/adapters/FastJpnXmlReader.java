@@ -0,0 +1,276 @@
+package com.example.nonogram.adapters;
+
+import com.example.nonogram.core.io.JpnXmlReader;
+import com.example.nonogram.core.io.JpnXmlReaderException;
+import com.example.nonogram.core.model.Crossword;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Читатель JPNXML без JAXP: разбирает байты UTF-8 напрямую. Подсказки считываются цифра
+ * за цифрой прямо из буфера, без промежуточных строк, {@code split} и {@code parseInt}.
+ * <p>
+ * Понимает то, что пишут наши писатели и что встречается в файлах руками: объявление
+ * {@code <?xml?>}, комментарии, атрибуты, пустые элементы {@code <row/>}, CDATA.
+ * Парность тегов проверяется. DTD ({@code <!DOCTYPE>}) и ссылки на сущности внутри
+ * подсказок отвергаются — внешних ресурсов читатель не трогает вовсе.
+ * Семантика та же, что у SAX/StAX-читателей: {@code <row>} учитывается только внутри
+ * {@code <rows>}, {@code <column>} — внутри {@code <columns>}, прочие элементы пропускаются.
+ */
+public class FastJpnXmlReader implements JpnXmlReader {
+
+    private static final byte[] CROSSWORD = ascii("crossword");
+    private static final byte[] ROWS = ascii("rows");
+    private static final byte[] COLUMNS = ascii("columns");
+    private static final byte[] ROW = ascii("row");
+    private static final byte[] COLUMN = ascii("column");
+
+    @Override
+    public Crossword read(InputStream in) throws JpnXmlReaderException {
+        if (in == null) throw new JpnXmlReaderException("InputStream is null");
+        byte[] bytes;
+        try {
+            bytes = in.readAllBytes();
+        } catch (IOException e) {
+            throw new JpnXmlReaderException("Read error: " + e.getMessage(), e);
+        }
+        return new Parser(bytes).parse();
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class Parser {
+        private static final int NONE = 0, ROW_ITEM = 1, COLUMN_ITEM = 2;
+
+        private final byte[] b;
+        private int pos;
+
+        // открытые элементы: смещение и длина имени в буфере
+        private int[] openStart = new int[8];
+        private int[] openLength = new int[8];
+        private int depth;
+        private boolean rootClosed;
+
+        private boolean seenRoot;
+        private boolean inRows;
+        private boolean inCols;
+        private int item = NONE;
+
+        private int[] clues = new int[16];
+        private int count;
+        private int value;
+        private boolean inNumber;
+
+        private final Crossword.Builder lines = Crossword.builder();
+
+        Parser(byte[] b) {
+            this.b = b;
+        }
+
+        Crossword parse() {
+            if (b.length >= 3 && (b[0] & 0xFF) == 0xEF && (b[1] & 0xFF) == 0xBB && (b[2] & 0xFF) == 0xBF) pos = 3;
+            while (pos < b.length) {
+                if (b[pos] == '<') markup();
+                else if (item != NONE) text();
+                else pos++;
+            }
+            if (depth != 0) throw error("Unexpected end of document, <" + name(depth - 1) + "> is not closed");
+
+            if (!seenRoot) throw new JpnXmlReaderException("Root <crossword> not found");
+            if (lines.rows() == 0 || lines.columns() == 0)
+                throw new JpnXmlReaderException("<rows> or <columns> are empty/missing");
+            return lines.build();
+        }
+
+        /** Текст подсказки до следующей разметки. */
+        private void text() {
+            while (pos < b.length) {
+                int c = b[pos];
+                if (c == '<') return;
+                if (c == '&') throw error("Entity references are not supported in clues");
+                clueByte(c);
+                pos++;
+            }
+        }
+
+        private void clueByte(int c) {
+            if (c >= '0' && c <= '9') {
+                if (value > (Integer.MAX_VALUE - 9) / 10) throw error("Clue number is too large");
+                value = value * 10 + (c - '0');
+                inNumber = true;
+            } else if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                endNumber();
+            } else {
+                throw error("Bad clue character '" + (char) (c & 0xFF) + "'");
+            }
+        }
+
+        private void endNumber() {
+            if (!inNumber) return;
+            if (value == 0) throw error("Clue numbers must be > 0, got: 0");
+            if (count == clues.length) clues = Arrays.copyOf(clues, count * 2);
+            clues[count++] = value;
+            value = 0;
+            inNumber = false;
+        }
+
+        private void markup() {
+            int next = pos + 1 < b.length ? b[pos + 1] : -1;
+            if (next == '?') {
+                pos = skipPast("?>", pos + 2);
+            } else if (next == '!') {
+                if (startsWith("<!--", pos)) {
+                    pos = skipPast("-->", pos + 4);
+                } else if (startsWith("<![CDATA[", pos)) {
+                    int close = indexOf("]]>", pos + 9);
+                    if (item != NONE) for (int i = pos + 9; i < close; i++) clueByte(b[i]);
+                    pos = close + 3;
+                } else {
+                    throw error("DTD is not allowed");
+                }
+            } else if (next == '/') {
+                endTag();
+            } else {
+                startTag();
+            }
+        }
+
+        private void startTag() {
+            int nameStart = pos + 1;
+            int nameEnd = nameStart;
+            while (nameEnd < b.length && !isNameEnd(b[nameEnd])) nameEnd++;
+            if (nameEnd == nameStart) throw error("Malformed start tag");
+            if (depth == 0 && rootClosed) throw error("Content after the root element");
+
+            // атрибуты пропускаются; '>' внутри кавычек тег не закрывает
+            int i = nameEnd;
+            byte quote = 0;
+            while (i < b.length && (quote != 0 || b[i] != '>')) {
+                byte c = b[i];
+                if (quote != 0) {
+                    if (c == quote) quote = 0;
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                }
+                i++;
+            }
+            if (i == b.length) throw error("Unterminated start tag");
+            boolean empty = b[i - 1] == '/';
+            pos = i + 1;
+
+            push(nameStart, nameEnd - nameStart);
+            start(nameStart, nameEnd - nameStart);
+            if (empty) {
+                depth--;
+                end(nameStart, nameEnd - nameStart);
+            }
+        }
+
+        private void endTag() {
+            int nameStart = pos + 2;
+            int nameEnd = nameStart;
+            while (nameEnd < b.length && !isNameEnd(b[nameEnd])) nameEnd++;
+            int close = nameEnd;
+            while (close < b.length && isSpace(b[close])) close++;
+            if (close == b.length || b[close] != '>') throw error("Malformed end tag");
+            int length = nameEnd - nameStart;
+            if (depth == 0) throw error("Unexpected end tag");
+            depth--;
+            if (!Arrays.equals(b, nameStart, nameEnd, b, openStart[depth], openStart[depth] + openLength[depth]))
+                throw error("End tag does not match <" + name(depth) + ">");
+            pos = close + 1;
+            end(nameStart, length);
+        }
+
+        private void start(int at, int length) {
+            if (is(CROSSWORD, at, length)) {
+                seenRoot = true;
+            } else if (is(ROWS, at, length)) {
+                inRows = true;
+            } else if (is(COLUMNS, at, length)) {
+                inCols = true;
+            } else if (is(ROW, at, length)) {
+                if (inRows) beginItem(ROW_ITEM);
+            } else if (is(COLUMN, at, length)) {
+                if (inCols) beginItem(COLUMN_ITEM);
+            }
+        }
+
+        private void end(int at, int length) {
+            if (depth == 0) rootClosed = true;
+            if (is(ROWS, at, length)) {
+                inRows = false;
+            } else if (is(COLUMNS, at, length)) {
+                inCols = false;
+            } else if (is(ROW, at, length)) {
+                if (item == ROW_ITEM) lines.row(clues, 0, endItem());
+            } else if (is(COLUMN, at, length)) {
+                if (item == COLUMN_ITEM) lines.column(clues, 0, endItem());
+            }
+        }
+
+        private void beginItem(int kind) {
+            item = kind;
+            count = 0;
+            value = 0;
+            inNumber = false;
+        }
+
+        /** Закрывает линию; её числа — первые {@code count} в {@link #clues}. */
+        private int endItem() {
+            endNumber();
+            item = NONE;
+            return count;
+        }
+
+        private void push(int at, int length) {
+            if (depth == openStart.length) {
+                openStart = Arrays.copyOf(openStart, depth * 2);
+                openLength = Arrays.copyOf(openLength, depth * 2);
+            }
+            openStart[depth] = at;
+            openLength[depth] = length;
+            depth++;
+        }
+
+        private boolean is(byte[] name, int at, int length) {
+            return length == name.length && Arrays.equals(b, at, at + length, name, 0, length);
+        }
+
+        private String name(int level) {
+            return new String(b, openStart[level], openLength[level], StandardCharsets.UTF_8);
+        }
+
+        private boolean startsWith(String s, int at) {
+            if (at + s.length() > b.length) return false;
+            for (int i = 0; i < s.length(); i++) if (b[at + i] != s.charAt(i)) return false;
+            return true;
+        }
+
+        private int indexOf(String s, int from) {
+            for (int i = from; i + s.length() <= b.length; i++) if (startsWith(s, i)) return i;
+            throw error("Unterminated markup, expected '" + s + "'");
+        }
+
+        private int skipPast(String s, int from) {
+            return indexOf(s, from) + s.length();
+        }
+
+        private static boolean isNameEnd(byte c) {
+            return c == '>' || c == '/' || isSpace(c);
+        }
+
+        private static boolean isSpace(byte c) {
+            return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+        }
+
+        private JpnXmlReaderException error(String message) {
+            return new JpnXmlReaderException("Fast parse error at byte " + pos + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.nonogram.adapters.reader;
+
+import com.example.nonogram.core.io.JpnXmlReader;
+import com.example.nonogram.core.io.JpnXmlReaderException;
+import com.example.nonogram.core.model.Crossword;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.xml.XmlFactory;
+import com.fasterxml.jackson.dataformat.xml.deser.FromXmlParser;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Читатель JPNXML на потоковом парсере Jackson ({@link FromXmlParser}) — по токенам, без
+ * привязки к дереву объектов. Элементы приходят как поля объектов: {@code <rows>} — объект,
+ * каждый {@code <row>} — поле со строковым значением. Текст подсказки разбирается прямо
+ * из буфера символов парсера, без {@code String}.
+ * <p>
+ * Фабрика одна на экземпляр (она потокобезопасна); DTD и внешние сущности выключены.
+ */
+public class JacksonJpnXmlReader implements JpnXmlReader {
+
+    private final XmlFactory factory;
+
+    public JacksonJpnXmlReader() {
+        XMLInputFactory in = XMLInputFactory.newFactory();
+        in.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        in.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        in.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        this.factory = new XmlFactory(in);
+    }
+
+    @Override
+    public Crossword read(InputStream in) throws JpnXmlReaderException {
+        if (in == null) throw new JpnXmlReaderException("InputStream is null");
+        try (FromXmlParser p = (FromXmlParser) factory.createParser(in)) {
+            XMLStreamReader root = p.getStaxReader();
+            if (!root.isStartElement() || !"crossword".equals(root.getLocalName()))
+                throw new JpnXmlReaderException("Root <crossword> not found");
+
+            Crossword.Builder out = Crossword.builder();
+            LineParser lines = new LineParser();
+
+            if (p.nextToken() != JsonToken.START_OBJECT) throw new JpnXmlReaderException("<rows> or <columns> are empty/missing");
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String name = p.currentName();
+                JsonToken value = p.nextToken();
+                if ("rows".equals(name)) {
+                    readSection(p, value, true, out, lines);
+                } else if ("columns".equals(name)) {
+                    readSection(p, value, false, out, lines);
+                } else {
+                    p.skipChildren();
+                }
+            }
+
+            if (out.rows() == 0 || out.columns() == 0)
+                throw new JpnXmlReaderException("<rows> or <columns> are empty/missing");
+            return out.build();
+        } catch (JpnXmlReaderException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JpnXmlReaderException("Jackson parse error: " + e.getMessage(), e);
+        }
+    }
+
+    /** Содержимое {@code <rows>}/{@code <columns>}: поля {@code <row>}/{@code <column>} — линии, прочее пропускается. */
+    private static void readSection(FromXmlParser p, JsonToken value, boolean rows,
+                                    Crossword.Builder out, LineParser lines) throws Exception {
+        if (value != JsonToken.START_OBJECT) return;        // пустая секция приходит строкой
+        String item = rows ? "row" : "column";
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            boolean isItem = item.equals(p.currentName());
+            JsonToken t = p.nextToken();
+            if (!isItem) {
+                p.skipChildren();
+            } else if (t == JsonToken.VALUE_STRING || t == JsonToken.VALUE_NULL) {
+                int count = t == JsonToken.VALUE_NULL ? 0 : lines.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                if (rows) out.row(lines.clues, 0, count);
+                else out.column(lines.clues, 0, count);
+            } else {
+                throw new JpnXmlReaderException("Unexpected markup inside <" + item + ">");
+            }
+        }
+    }
+
+    /** Разбор чисел через пробельные символы в переиспользуемый {@link #clues}. */
+    private static final class LineParser {
+        private int[] clues = new int[16];
+
+        /** Возвращает, сколько чисел в линии. */
+        int parse(char[] text, int offset, int length) {
+            int count = 0;
+            int value = 0;
+            boolean inNumber = false;
+            for (int i = offset, end = offset + length; i <= end; i++) {
+                char c = i < end ? text[i] : ' ';
+                if (c >= '0' && c <= '9') {
+                    if (value > (Integer.MAX_VALUE - 9) / 10)
+                        throw new JpnXmlReaderException("Clue number is too large: " + new String(text, offset, length));
+                    value = value * 10 + (c - '0');
+                    inNumber = true;
+                } else if (Character.isWhitespace(c)) {
+                    if (!inNumber) continue;
+                    if (value == 0) throw new JpnXmlReaderException("Clue numbers must be > 0, got: 0");
+                    if (count == clues.length) clues = Arrays.copyOf(clues, count * 2);
+                    clues[count++] = value;
+                    value = 0;
+                    inNumber = false;
+                } else {
+                    throw new JpnXmlReaderException("Bad clue number in line: \"" + new String(text, offset, length) + "\"");
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -12,22 +12,45 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Фабрика настраивается один раз на экземпляр; {@link SAXParser} не потокобезопасен,
+ * поэтому у каждого потока свой, со сбросом после разбора.
+ */
 public class SaxJpnXmlReader implements JpnXmlReader {
 
-    @Override
-    public Crossword read(InputStream in) throws JpnXmlReaderException {
-        if (in == null) throw new JpnXmlReaderException("InputStream is null");
-        try {
-            SAXParserFactory f = SAXParserFactory.newInstance();
-            f.setNamespaceAware(false);
-            f.setValidating(false);
+    private final SAXParserFactory f;
+    private final ThreadLocal<SAXParser> parsers = ThreadLocal.withInitial(this::newParser);
 
+    public SaxJpnXmlReader() {
+        f = SAXParserFactory.newInstance();
+        f.setNamespaceAware(false);
+        f.setValidating(false);
+        try {
             // Безопасность (XXE и т.п.)
             f.setFeature("http://xml.org/sax/features/external-general-entities", false);
             f.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
             f.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        } catch (Exception e) {
+            throw new IllegalStateException("SAX parser does not support secure configuration", e);
+        }
+    }
 
-            SAXParser parser = f.newSAXParser();
+    private SAXParser newParser() {
+        // сама фабрика не обязана быть потокобезопасной
+        synchronized (f) {
+            try {
+                return f.newSAXParser();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Override
+    public Crossword read(InputStream in) throws JpnXmlReaderException {
+        if (in == null) throw new JpnXmlReaderException("InputStream is null");
+        SAXParser parser = parsers.get();
+        try {
             CrosswordHandler handler = new CrosswordHandler();
             parser.parse(in, handler);
 
@@ -42,6 +65,8 @@ public class SaxJpnXmlReader implements JpnXmlReader {
             throw e;
         } catch (Exception e) {
             throw new JpnXmlReaderException("SAX parse error: " + e.getMessage(), e);
+        } finally {
+            parser.reset();
         }
     }
 
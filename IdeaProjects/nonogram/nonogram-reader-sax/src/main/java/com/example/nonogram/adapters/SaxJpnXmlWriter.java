@@ -1,5 +1,6 @@
 package com.example.nonogram.adapters;
 
+import com.example.nonogram.core.io.JpnXmlLineWriter;
 import com.example.nonogram.core.io.JpnXmlWriter;
 import com.example.nonogram.core.model.Crossword;
 import org.xml.sax.helpers.AttributesImpl;
@@ -14,22 +15,22 @@ import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+/**
+ * {@link TransformerHandler} — на один документ, его повторное использование API не обещает;
+ * создание из готовой фабрики дёшево. Фабрика не потокобезопасна — у каждого потока своя,
+ * так что параллельные записи не ждут друг друга.
+ * <p>
+ * {@link #open} шлёт события по мере поступления линий; трансформер пишет их в поток сразу.
+ */
 public class SaxJpnXmlWriter implements JpnXmlWriter {
 
+    private final ThreadLocal<SAXTransformerFactory> factories =
+            ThreadLocal.withInitial(() -> (SAXTransformerFactory) SAXTransformerFactory.newInstance());
+
     @Override
     public void write(Crossword cw, OutputStream out) {
         try {
-            SAXTransformerFactory tf = (SAXTransformerFactory) SAXTransformerFactory.newInstance();
-            TransformerHandler th = tf.newTransformerHandler();
-            Transformer tr = th.getTransformer();
-
-            tr.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-            tr.setOutputProperty(OutputKeys.INDENT, "yes");
-            tr.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-
-            Result result = new StreamResult(out);
-            th.setResult(result);
-
+            TransformerHandler th = newHandler(out);
             AttributesImpl attrs = new AttributesImpl();
 
             th.startDocument();
@@ -66,6 +67,67 @@ public class SaxJpnXmlWriter implements JpnXmlWriter {
         }
     }
 
+    @Override
+    public JpnXmlLineWriter open(OutputStream out) {
+        TransformerHandler th;
+        AttributesImpl attrs = new AttributesImpl();
+        try {
+            th = newHandler(out);
+            th.startDocument();
+            th.startElement("", "", "crossword", attrs);
+        } catch (Exception e) {
+            throw new RuntimeException("SAX writer error: " + e.getMessage(), e);
+        }
+        return new JpnXmlLineWriter() {
+            private final StringBuilder text = new StringBuilder();
+
+            @Override
+            protected void startSection(boolean rows) throws Exception {
+                th.startElement("", "", rows ? "rows" : "columns", attrs);
+            }
+
+            @Override
+            protected void line(boolean row, int[] clues, int from, int count) throws Exception {
+                String item = row ? "row" : "column";
+                th.startElement("", "", item, attrs);
+                if (count > 0) {
+                    text.setLength(0);
+                    for (int i = 0; i < count; i++) {
+                        if (i > 0) text.append(' ');
+                        text.append(clues[from + i]);
+                    }
+                    writeChars(th, text.toString());
+                }
+                th.endElement("", "", item);
+            }
+
+            @Override
+            protected void endSection(boolean rows) throws Exception {
+                th.endElement("", "", rows ? "rows" : "columns");
+            }
+
+            @Override
+            protected void endDocument() throws Exception {
+                th.endElement("", "", "crossword");
+                th.endDocument();
+                out.flush();
+            }
+        };
+    }
+
+    private TransformerHandler newHandler(OutputStream out) throws Exception {
+        TransformerHandler th = factories.get().newTransformerHandler();
+        Transformer tr = th.getTransformer();
+
+        tr.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        tr.setOutputProperty(OutputKeys.INDENT, "yes");
+        tr.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
+
+        Result result = new StreamResult(out);
+        th.setResult(result);
+        return th;
+    }
+
     private static void writeChars(TransformerHandler th, String s) throws Exception {
         char[] data = s.toCharArray();
         th.characters(data, 0, data.length);
@@ -11,18 +11,22 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
+/** Фабрика настраивается один раз на экземпляр; после настройки её можно делить между потоками. */
 public class StaxJpnXmlReader implements JpnXmlReader {
 
+    private final XMLInputFactory f;
+
+    public StaxJpnXmlReader() {
+        f = XMLInputFactory.newInstance();
+        f.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        f.setProperty("javax.xml.stream.isSupportingExternalEntities", false);
+        f.setProperty("javax.xml.stream.supportDTD", false);
+    }
+
     @Override
     public Crossword read(InputStream in) throws JpnXmlReaderException {
         if (in == null) throw new JpnXmlReaderException("InputStream is null");
         try {
-            XMLInputFactory f = XMLInputFactory.newInstance();
-
-            f.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
-            f.setProperty("javax.xml.stream.isSupportingExternalEntities", false);
-            f.setProperty("javax.xml.stream.supportDTD", false);
-
             XMLStreamReader r = f.createXMLStreamReader(in, "UTF-8");
 
             boolean seenRoot = false;
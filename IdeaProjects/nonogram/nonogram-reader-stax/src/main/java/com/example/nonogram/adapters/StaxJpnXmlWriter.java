@@ -1,5 +1,6 @@
 package com.example.nonogram.adapters;
 
+import com.example.nonogram.core.io.JpnXmlLineWriter;
 import com.example.nonogram.core.io.JpnXmlWriter;
 import com.example.nonogram.core.model.Crossword;
 
@@ -8,12 +9,17 @@ import javax.xml.stream.XMLStreamWriter;
 import java.io.OutputStream;
 import java.util.List;
 
+/**
+ * Фабрика одна на экземпляр; после создания её можно делить между потоками. {@link #open}
+ * пишет линии в тот же {@link XMLStreamWriter} по мере поступления.
+ */
 public class StaxJpnXmlWriter implements JpnXmlWriter {
 
+    private final XMLOutputFactory f = XMLOutputFactory.newInstance();
+
     @Override
     public void write(Crossword cw, OutputStream out) {
         try {
-            XMLOutputFactory f = XMLOutputFactory.newInstance();
             XMLStreamWriter w = f.createXMLStreamWriter(out, "UTF-8");
 
             w.writeStartDocument("UTF-8", "1.0");
@@ -49,6 +55,53 @@ public class StaxJpnXmlWriter implements JpnXmlWriter {
         }
     }
 
+    @Override
+    public JpnXmlLineWriter open(OutputStream out) {
+        XMLStreamWriter w;
+        try {
+            w = f.createXMLStreamWriter(out, "UTF-8");
+            w.writeStartDocument("UTF-8", "1.0");
+            w.writeStartElement("crossword");
+        } catch (Exception e) {
+            throw new RuntimeException("StAX writer error: " + e.getMessage(), e);
+        }
+        return new JpnXmlLineWriter() {
+            private final StringBuilder text = new StringBuilder();
+
+            @Override
+            protected void startSection(boolean rows) throws Exception {
+                w.writeStartElement(rows ? "rows" : "columns");
+            }
+
+            @Override
+            protected void line(boolean row, int[] clues, int from, int count) throws Exception {
+                w.writeStartElement(row ? "row" : "column");
+                if (count > 0) {
+                    text.setLength(0);
+                    for (int i = 0; i < count; i++) {
+                        if (i > 0) text.append(' ');
+                        text.append(clues[from + i]);
+                    }
+                    w.writeCharacters(text.toString());
+                }
+                w.writeEndElement();
+            }
+
+            @Override
+            protected void endSection(boolean rows) throws Exception {
+                w.writeEndElement();
+            }
+
+            @Override
+            protected void endDocument() throws Exception {
+                w.writeEndElement(); // </crossword>
+                w.writeEndDocument();
+                w.flush();
+                w.close();
+            }
+        };
+    }
+
     private static String joinInts(List<Integer> nums) {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < nums.size(); i++) {